@@ -0,0 +1,78 @@
+package ru.practicum.shareit.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Нагрузка на запущенный шлюз при медленном сервере (SlowServerStub): держит заданное число запросов
+// GET /users/{id} в полёте и печатает пропускную способность, перцентили задержки и число ошибок.
+// Сравнение блокирующего и реактивного режимов — два прогона против шлюза с shareit-server.reactive=false/true.
+// Аргументы: адрес шлюза (http://localhost:8080), одновременных запросов (2000), всего запросов (50000)
+public class GatewayLoadTest {
+    private static final int USERS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        String gatewayUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int total = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            // прогрев: JIT шлюза и пулы соединений
+            run(client, gatewayUrl, Math.min(concurrency, 200), Math.min(total, 5_000));
+            Result result = run(client, gatewayUrl, concurrency, total);
+            System.out.printf("%s: %d запросов, в полёте до %d%n", gatewayUrl, total, concurrency);
+            System.out.printf("пропускная способность: %.0f запросов/с%n", total / result.seconds());
+            System.out.printf("задержка, мс: p50=%d p99=%d max=%d%n",
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+            System.out.printf("ошибок: %d%n", result.errors());
+        }
+    }
+
+    private static Result run(HttpClient client, String gatewayUrl, int concurrency, int total) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[total];
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl + "/users/" + (i % USERS + 1)))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), elapsed / 1e9);
+    }
+
+    private record Result(long[] sortedLatencies, int errors, double seconds) {
+        long percentile(double p) {
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sortedLatencies[Math.max(0, index)]);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// getByOwner — листинг владельца; getById от имени владельца проходит через выбор last/next (findLastAndNext)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "100"})
+    private int items;
+
+    @Param({"10", "200"})
+    private int bookingsPerItem;
+
+    private SeededServer server;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new SeededServer(items, bookingsPerItem, 5);
+        itemService = server.bean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Collection<ItemInfoDto> getByOwner() {
+        return itemService.getByOwner(server.ownerId());
+    }
+
+    @Benchmark
+    public ItemInfoDto getByIdAsOwner() {
+        return itemService.getById(server.firstItemId(), server.ownerId(), etag -> false).orElseThrow();
+    }
+}
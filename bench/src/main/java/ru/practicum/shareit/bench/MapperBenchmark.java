@@ -0,0 +1,99 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Аллокации конвертеров смотреть с профайлером: -Djmh.args="MapperBenchmark -prof gc"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final CommentMapper commentMapper = new CommentMapper();
+    private final UserMapper userMapper = new UserMapper();
+
+    private Booking booking;
+    private Item item;
+    private Comment comment;
+    private BookingDto bookingDto;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@bench.ru");
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("booker");
+        booker.setEmail("booker@bench.ru");
+        LocalDateTime now = LocalDateTime.now();
+        ItemRequest request = new ItemRequest(3L, "Нужна дрель", booker, now.minusDays(1), 0L);
+
+        item = new Item(4L, "Дрель", "Ударная дрель", true, owner, request, 0L);
+        booking = new Booking(5L, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED);
+        comment = new Comment(6L, "Отличная дрель", item, booker, now);
+        bookingDto = bookingMapper.bookingToDto(booking);
+        comments = List.of(commentMapper.commentToDto(comment));
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.bookingToDto(booking);
+    }
+
+    @Benchmark
+    public BookingFullDto bookingToFullDto() {
+        ItemDto itemDto = itemMapper.itemToDTO(booking.getItem());
+        UserDto userDto = userMapper.userToDto(booking.getBooker());
+        return bookingMapper.bookingToFullDto(booking, itemDto, userDto);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.itemToDTO(item);
+    }
+
+    @Benchmark
+    public ItemInfoDto itemToInfoDto() {
+        return itemMapper.itemToInfoDto(item, bookingDto, bookingDto, comments, comments.size());
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return commentMapper.commentToDto(comment);
+    }
+}
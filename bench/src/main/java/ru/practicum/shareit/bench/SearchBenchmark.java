@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// LIKE-запрос (ItemRepository.search) против триграммного индекса на одних и тех же данных
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"1000", "20000"})
+    private int items;
+
+    @Param({"дрел", "палатка", "почти новая"})
+    private String text;
+
+    private SeededServer server;
+    private ItemRepository itemRepository;
+    private ItemSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new SeededServer(items, 0, 0);
+        itemRepository = server.bean(ItemRepository.class);
+        searchIndex = server.bean(ItemSearchIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Item> like() {
+        return itemRepository.search(text, new OffsetPageRequest(0, 20));
+    }
+
+    @Benchmark
+    public List<IndexedItem> index() {
+        return searchIndex.search(text, 0, 20);
+    }
+}
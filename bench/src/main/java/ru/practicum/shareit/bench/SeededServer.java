@@ -0,0 +1,104 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Контекст сервера без веб-слоя поверх H2 (профиль test) с детерминированно засеянными данными
+public class SeededServer implements AutoCloseable {
+    static final String[] WORDS = {"дрель", "палатка", "велосипед", "перфоратор", "лестница", "самокат", "шуруповёрт"};
+
+    private final ConfigurableApplicationContext context;
+    private final long ownerId;
+    private final long bookerId;
+    private final long firstItemId;
+
+    public SeededServer(int items, int bookingsPerItem, int commentsPerItem) {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User owner = userRepository.save(user("owner"));
+        User booker = userRepository.save(user("booker"));
+
+        List<Item> savedItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String word = WORDS[i % WORDS.length];
+            savedItems.add(new Item(null, word + " " + i, "Отличная " + word + ", почти новая", i % 5 != 0, owner, null, null));
+        }
+        savedItems = itemRepository.saveAll(savedItems);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(items * bookingsPerItem);
+        List<Comment> comments = new ArrayList<>(items * commentsPerItem);
+        for (Item item : savedItems) {
+            for (int b = 0; b < bookingsPerItem; b++) {
+                // половина в прошлом, половина в будущем, статусы вперемешку
+                LocalDateTime start = now.plusDays((long) (b - bookingsPerItem / 2) * 3);
+                BookingStatus status = BookingStatus.values()[b % BookingStatus.values().length];
+                bookings.add(new Booking(null, start, start.plusDays(2), item, booker, status));
+            }
+            for (int c = 0; c < commentsPerItem; c++) {
+                comments.add(new Comment(null, "Комментарий " + c, item, booker, now.minusHours(c)));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        context.getBean(ItemSearchIndex.class).rebuild();
+
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        firstItemId = savedItems.getFirst().getId();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long ownerId() {
+        return ownerId;
+    }
+
+    public long bookerId() {
+        return bookerId;
+    }
+
+    public long firstItemId() {
+        return firstItemId;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@bench.ru");
+        return user;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+// Заглушка сервера для GatewayLoadTest: GET /users/{id} отвечает JSON пользователя с заданной задержкой.
+// Каждый запрос — в своём виртуальном потоке, так что тысячи ожидающих ответов заглушке ничего не стоят
+// и узким местом остаётся шлюз. Аргументы: порт (9090) и задержка ответа в мс (200)
+public class SlowServerStub {
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        Duration delay = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 200);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 10_000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users/", exchange -> respond(exchange, delay));
+        server.start();
+        System.out.printf("Заглушка сервера на :%d, задержка %d мс%n", port, delay.toMillis());
+    }
+
+    private static void respond(HttpExchange exchange, Duration delay) throws IOException {
+        try (exchange) {
+            Thread.sleep(delay);
+            String id = exchange.getRequestURI().getPath().substring("/users/".length());
+            byte[] body = ("{\"id\":" + id + ",\"name\":\"user " + id + "\",\"email\":\"user" + id + "@mail.ru\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
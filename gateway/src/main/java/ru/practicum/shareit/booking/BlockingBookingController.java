@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "false", matchIfMissing = true)
+public class BlockingBookingController extends BookingController<ResponseEntity<Object>> {
+
+    public BlockingBookingController(BookingClient bookingClient) {
+        super(bookingClient);
+    }
+
+    @Override
+    protected ResponseEntity<Object> respond(ServerCall call) {
+        return call.execute();
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerWebClientFactory;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,32 +23,62 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ServerWebClientFactory webClients,
+                         @Value("${shareit-server.passthrough}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClients.create(serverUrl + API_PREFIX),
+                null,
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookItemRequestDto requestDto) {
+    public ServerCall createBooking(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, boolean approved, long userId) {
+    public ServerCall approveBooking(long bookingId, boolean approved, long userId) {
         return patch("/" + bookingId + "?approved={approved}", userId, Map.of("approved", approved), null);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
+    public ServerCall decideBookings(BookingDecisionBatchDto decisionDto, long userId) {
+        return patch("/batch", userId, decisionDto);
+    }
+
+    public ServerCall getBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(String stateValue, long userId) {
-        return get("?state={stateValue}", userId, Map.of("stateValue", stateValue));
+    public ServerCall getBookingsByUser(String stateValue, @Nullable String cursor, @Nullable Integer size, long userId) {
+        return getPage("", stateValue, cursor, size, userId);
+    }
+
+    public ServerCall getBookingsByOwner(String stateValue, @Nullable String cursor, @Nullable Integer size, long userId) {
+        return getPage("/owner", stateValue, cursor, size, userId);
+    }
+
+    public void exportBookingsByOwner(long userId, HttpServletResponse response) throws IOException {
+        getStreaming("/owner/export", userId, response);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(String stateValue, long userId) {
-        return get("/owner?state={stateValue}", userId, Map.of("stateValue", stateValue));
+    private ServerCall getPage(String path, String stateValue, @Nullable String cursor, @Nullable Integer size, long userId) {
+        // size и cursor передаются, только если пришли от клиента: без обоих сервер отдаёт весь список
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("stateValue", stateValue);
+        StringBuilder query = new StringBuilder(path).append("?state={stateValue}");
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        return get(query.toString(), userId, parameters);
     }
 }
@@ -1,10 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,55 +16,81 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ServerCall;
+
+import java.io.IOException;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
-@Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class BookingController {
+public abstract class BookingController<R> {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                                @RequestBody @Valid BookItemRequestDto requestDto) {
+    public R createBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                           @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
-        return bookingClient.createBooking(userId, requestDto);
+        return respond(bookingClient.createBooking(userId, requestDto));
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@PathVariable long bookingId,
-                                                 @RequestHeader(USER_ID_HEADER) long userId,
-                                                 @RequestParam boolean approved) {
+    public R approveBooking(@PathVariable long bookingId,
+                            @RequestHeader(USER_ID_HEADER) long userId,
+                            @RequestParam boolean approved) {
         log.info("Approve booking {}, userId={}, approve={}", bookingId, userId, approved);
-        return bookingClient.approveBooking(bookingId, approved, userId);
+        return respond(bookingClient.approveBooking(bookingId, approved, userId));
+    }
+
+    @PatchMapping("/batch")
+    public R decideBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                            @RequestBody @Valid BookingDecisionBatchDto decisionDto) {
+        log.info("Decide bookings {}, userId={}, approve={}",
+                decisionDto.getBookingIds(), userId, decisionDto.getApproved());
+        return respond(bookingClient.decideBookings(decisionDto, userId));
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @PathVariable Long bookingId) {
+    public R getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
+                            @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBookingById(userId, bookingId);
+        return respond(bookingClient.getBookingById(userId, bookingId));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingByUser(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
-                                                   @RequestHeader(USER_ID_HEADER) long userId) {
+    public R getBookingByUser(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
+                              @RequestParam(name = "cursor", required = false) String cursor,
+                              @RequestParam(name = "size", required = false) @Positive @Max(100) Integer size,
+                              @RequestHeader(USER_ID_HEADER) long userId) {
         BookingState.from(stateValue)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateValue));
-        log.info("Get bookings by user {} with state={}", userId, stateValue);
-        return bookingClient.getBookingsByUser(stateValue, userId);
+        log.info("Get bookings by user {} with state={}, cursor={}, size={}", userId, stateValue, cursor, size);
+        return respond(bookingClient.getBookingsByUser(stateValue, cursor, size, userId));
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingByOwner(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
-                                                    @RequestHeader(USER_ID_HEADER) long userId) {
+    public R getBookingByOwner(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
+                               @RequestParam(name = "cursor", required = false) String cursor,
+                               @RequestParam(name = "size", required = false) @Positive @Max(100) Integer size,
+                               @RequestHeader(USER_ID_HEADER) long userId) {
         BookingState.from(stateValue)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateValue));
-        log.info("Get bookings by owner {} with state={}", userId, stateValue);
-        return bookingClient.getBookingsByOwner(stateValue, userId);
+        log.info("Get bookings by owner {} with state={}, cursor={}, size={}", userId, stateValue, cursor, size);
+        return respond(bookingClient.getBookingsByOwner(stateValue, cursor, size, userId));
     }
+
+    // Полная история владельца в NDJSON: шлюз не буферизует ответ, а копирует поток сервера
+    @GetMapping("/owner/export")
+    public void exportBookingsByOwner(@RequestHeader(USER_ID_HEADER) long userId,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Export bookings by owner, userId={}", userId);
+        bookingClient.exportBookingsByOwner(userId, response);
+    }
+
+    // R и способ выполнить запрос к серверу задаёт режим шлюза: BlockingBookingController или ReactiveBookingController
+    protected abstract R respond(ServerCall call);
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "true")
+public class ReactiveBookingController extends BookingController<Mono<ResponseEntity<Object>>> {
+
+    public ReactiveBookingController(BookingClient bookingClient) {
+        super(bookingClient);
+    }
+
+    @Override
+    protected Mono<ResponseEntity<Object>> respond(ServerCall call) {
+        return call.exchange();
+    }
+}
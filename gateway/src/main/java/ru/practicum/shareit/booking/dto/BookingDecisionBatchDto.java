@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionBatchDto {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull @Positive Long> bookingIds;
+    @NotNull
+    private Boolean approved;
+}
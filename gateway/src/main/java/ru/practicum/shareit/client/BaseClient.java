@@ -1,98 +1,223 @@
 package ru.practicum.shareit.client;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
+import static ru.practicum.shareit.constants.PaginationHttpHeader.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
 public class BaseClient {
+    // в режиме passthrough клиенту уходят только эти заголовки сервера; hop-by-hop
+    // (Connection, Transfer-Encoding, Content-Length и т.п.) контейнер шлюза выставляет сам
+    private static final List<String> RELAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.RETRY_AFTER,
+            NEXT_CURSOR_HEADER);
+
     protected final RestTemplate rest;
+    // реактивный режим (shareit-server.reactive): ServerCall.exchange отправляет запрос через WebClient, и поток
+    // Tomcat не ждёт ответа — его дожидаются event loop-потоки reactor-netty. null — блокирующий режим:
+    // ServerCall.execute выполняет запрос через RestTemplate в потоке Tomcat
+    @Nullable
+    private final WebClient web;
+    @Nullable
+    private final ValidatorCache validators;
+    // тело ответа сервера передаётся клиенту байтами, без разбора в Object и повторной сериализации
+    private final boolean passthrough;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, false);
+    }
+
+    public BaseClient(RestTemplate rest, boolean passthrough) {
+        this(rest, null, passthrough);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ValidatorCache validators, boolean passthrough) {
+        this(rest, null, validators, passthrough);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, @Nullable ValidatorCache validators, boolean passthrough) {
         this.rest = rest;
+        this.web = web;
+        this.validators = validators;
+        this.passthrough = passthrough;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected ServerCall get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected ServerCall get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ServerCall get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    // GET с ревалидацией по ETag: сервер отвечает 304, если представление не изменилось.
+    // clientEtag — If-None-Match входящего запроса; при совпадении клиенту тоже уходит 304
+    protected ServerCall getConditional(String path, @Nullable Long userId, @Nullable String clientEtag) {
+        if (validators == null) {
+            return get(path, userId, null);
+        }
+        String key = rest.getUriTemplateHandler().expand(path) + "|" + userId;
+        ValidatorCache.Entry cached = validators.get(key);
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        return new ServerCall(
+                () -> revalidate(key, cached, clientEtag,
+                        blockingExchange(path, HttpMethod.GET, new HttpEntity<>(headers), null)),
+                () -> reactiveExchange(path, HttpMethod.GET, headers, null, null)
+                        .map(response -> revalidate(key, cached, clientEtag, response)));
+    }
+
+    private ResponseEntity<Object> revalidate(String key, @Nullable ValidatorCache.Entry cached,
+                                              @Nullable String clientEtag, ResponseEntity<?> shareitServerResponse) {
+        String etag;
+        Object body;
+        if (shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            etag = cached.getEtag();
+            body = cached.getBody();
+        } else if (shareitServerResponse.getStatusCode().is2xxSuccessful()
+                && shareitServerResponse.getHeaders().getETag() != null) {
+            etag = shareitServerResponse.getHeaders().getETag();
+            body = shareitServerResponse.getBody();
+            validators.put(key, etag, body);
+        } else {
+            validators.remove(key);
+            return prepareGatewayResponse(shareitServerResponse);
+        }
+
+        if (etagMatches(clientEtag, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Потоковый GET: байты ответа копируются в ответ шлюза по мере чтения, целиком в памяти не держатся.
+    // Идёт через RestTemplate в обоих режимах — запись в ответ сервлета всё равно блокирующая
+    protected void getStreaming(String path, long userId, HttpServletResponse target) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+                target.setStatus(response.getStatusCode().value());
+                copyRelayedHeaders(response.getHeaders(), target);
+                StreamUtils.copy(response.getBody(), target.getOutputStream());
+                target.flushBuffer();
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            target.setStatus(e.getStatusCode().value());
+            copyRelayedHeaders(e.getResponseHeaders(), target);
+            target.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    protected <T> ServerCall post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> ServerCall post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> ServerCall put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> ServerCall patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> ServerCall patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> ServerCall patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ServerCall patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected ServerCall delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected ServerCall delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ServerCall delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ServerCall makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        return new ServerCall(
+                () -> prepareGatewayResponse(blockingExchange(path, method, new HttpEntity<>(body, headers), parameters)),
+                () -> reactiveExchange(path, method, headers, parameters, body).map(this::prepareGatewayResponse));
+    }
+
+    // Ответ сервера с любым статусом, в т.ч. 4xx/5xx, приходит как обычный ResponseEntity
+    private Mono<ResponseEntity<?>> reactiveExchange(String path, HttpMethod method, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (web == null) {
+            throw new IllegalStateException("WebClient к серверу создаётся только при shareit-server.reactive=true");
+        }
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(responseType()).map(entity -> entity));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    // Блокирующий режим: запрос выполняется в вызывающем потоке Tomcat
+    private ResponseEntity<?> blockingExchange(String path, HttpMethod method, HttpEntity<?> requestEntity,
+                                               @Nullable Map<String, Object> parameters) {
+        Class<?> responseType = responseType();
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                return rest.exchange(path, method, requestEntity, responseType, parameters);
             }
+            return rest.exchange(path, method, requestEntity, responseType);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(), e.getStatusCode());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private Class<?> responseType() {
+        return passthrough ? byte[].class : Object.class;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -100,14 +225,55 @@ public class BaseClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private static boolean etagMatches(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<Object> relay(HttpStatusCode status, @Nullable HttpHeaders serverHeaders, @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            for (String name : RELAYED_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
+        }
+        return new ResponseEntity<>(body != null && body.length > 0 ? body : null, headers, status);
+    }
+
+    private static void copyRelayedHeaders(@Nullable HttpHeaders serverHeaders, HttpServletResponse target) {
+        if (serverHeaders == null) {
+            return;
+        }
+        for (String name : RELAYED_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                values.forEach(value -> target.addHeader(name, value));
+            }
+        }
+    }
+
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        if (passthrough) {
+            return relay(response.getStatusCode(), response.getHeaders(), (byte[]) response.getBody());
+        }
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
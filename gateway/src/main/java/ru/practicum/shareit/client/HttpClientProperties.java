@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Настройки общего пула соединений шлюза с сервером
+@Data
+@ConfigurationProperties("shareit-server.http")
+public class HttpClientProperties {
+    // маршрут фактически один (сервер), поэтому лимит на маршрут близок к общему
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    // сколько ждать свободное соединение из пула, прежде чем отказать
+    private Duration leaseTimeout = Duration.ofSeconds(2);
+    // реактивный режим: сколько запросов может ждать свободное соединение, сверх этого — отказ сразу
+    private int maxPending = 10000;
+    // верхняя граница keep-alive, если сервер не прислал свою
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration maxIdle = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ofMinutes(5);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
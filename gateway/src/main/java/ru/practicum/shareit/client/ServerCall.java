@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Запрос к серверу, собранный клиентом, но ещё не отправленный. Блокирующие контроллеры выполняют его
+// в потоке Tomcat через RestTemplate (execute), реактивные — через WebClient (exchange)
+public class ServerCall {
+    private final Supplier<ResponseEntity<Object>> blocking;
+    private final Supplier<Mono<ResponseEntity<Object>>> reactive;
+
+    public ServerCall(Supplier<ResponseEntity<Object>> blocking, Supplier<Mono<ResponseEntity<Object>>> reactive) {
+        this.blocking = blocking;
+        this.reactive = reactive;
+    }
+
+    // готовый ответ шлюза, без запроса к серверу
+    public static ServerCall of(ResponseEntity<Object> response) {
+        return new ServerCall(() -> response, () -> Mono.just(response));
+    }
+
+    public ResponseEntity<Object> execute() {
+        return blocking.get();
+    }
+
+    public Mono<ResponseEntity<Object>> exchange() {
+        return reactive.get();
+    }
+
+    public ServerCall doOnResponse(Consumer<ResponseEntity<Object>> action) {
+        return new ServerCall(() -> {
+            ResponseEntity<Object> response = blocking.get();
+            action.accept(response);
+            return response;
+        }, () -> reactive.get().doOnNext(action));
+    }
+}
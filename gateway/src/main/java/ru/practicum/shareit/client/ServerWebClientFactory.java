@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+// Реактивный режим шлюза (shareit-server.reactive=true): клиенты ходят на сервер через WebClient поверх
+// reactor-netty. Reactive*Controller возвращают Mono, поэтому поток Tomcat освобождается сразу (async servlet),
+// а ответа сервера ждут несколько event loop-потоков. Пул соединений один на всех клиентов, как и в HttpClientConfig
+@Component
+public class ServerWebClientFactory implements DisposableBean {
+    private final WebClient.Builder builder;
+    @Nullable
+    private final ConnectionProvider connectionProvider;
+    @Nullable
+    private final ReactorClientHttpConnector connector;
+
+    public ServerWebClientFactory(@Value("${shareit-server.reactive:false}") boolean reactive,
+                                  WebClient.Builder builder, HttpClientProperties properties) {
+        this.builder = builder;
+        if (!reactive) {
+            this.connectionProvider = null;
+            this.connector = null;
+            return;
+        }
+        // reactor.netty.connection.provider.shareit-server.* в /actuator/metrics
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxTotal())
+                .pendingAcquireMaxCount(properties.getMaxPending())
+                .pendingAcquireTimeout(properties.getLeaseTimeout())
+                .maxIdleTime(properties.getMaxIdle())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getMaxIdle())
+                .metrics(true)
+                .build();
+        this.connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout()));
+    }
+
+    // null в блокирующем режиме: BaseClient тогда работает через RestTemplate
+    @Nullable
+    public WebClient create(String baseUrl) {
+        if (connector == null) {
+            return null;
+        }
+        return builder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .clientConnector(connector)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+}
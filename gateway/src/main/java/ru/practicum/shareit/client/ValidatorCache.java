@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ограниченный LRU-кэш последних ответов сервера с их ETag: по нему шлюз делает условный GET
+// и при 304 от сервера отдаёт клиенту сохранённое тело, не перегоняя JSON заново
+@Component
+public class ValidatorCache {
+    private final Map<String, Entry> entries;
+
+    public ValidatorCache(@Value("${shareit-server.etag-cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Размер кэша ETag должен быть положительным");
+        }
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Nullable
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public void put(String key, String etag, @Nullable Object body) {
+        entries.put(key, new Entry(etag, body));
+    }
+
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final String etag;
+        @Nullable
+        private final Object body;
+    }
+}
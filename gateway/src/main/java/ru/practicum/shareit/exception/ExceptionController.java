@@ -1,5 +1,6 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,7 +15,9 @@ import java.nio.charset.StandardCharsets;
 @Slf4j
 @ControllerAdvice
 public class ExceptionController {
-    @ExceptionHandler({MethodArgumentNotValidException.class, IllegalArgumentException.class})
+    // ConstraintViolationException — нарушены ограничения параметров запроса (@Positive, @Max у size и т.п.)
+    @ExceptionHandler({MethodArgumentNotValidException.class, ConstraintViolationException.class,
+            IllegalArgumentException.class})
     public ResponseEntity<ErrorMessage> handleMethodArgumentNotValid(Exception exception) {
         log.error("ERROR", exception);
         final ByteArrayOutputStream out = getOutputStream(exception);
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "false", matchIfMissing = true)
+public class BlockingItemController extends ItemController<ResponseEntity<Object>> {
+
+    public BlockingItemController(ItemClient itemClient) {
+        super(itemClient);
+    }
+
+    @Override
+    protected ResponseEntity<Object> respond(ServerCall call) {
+        return call.execute();
+    }
+}
@@ -3,51 +3,81 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerWebClientFactory;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final SearchResultCache searchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ValidatorCache validators, ClientHttpRequestFactory requestFactory,
+                      ServerWebClientFactory webClients,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      SearchResultCache searchCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClients.create(serverUrl + API_PREFIX),
+                validators,
+                passthrough
         );
+        this.searchCache = searchCache;
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public ServerCall createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, long itemId, long userId) {
+    public ServerCall createItems(long userId, ItemBatchDto batchDto) {
+        return post("/batch", userId, batchDto);
+    }
+
+    public ServerCall updateItem(ItemDto itemDto, long itemId, long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public ServerCall getItemById(long itemId, long userId, @Nullable String ifNoneMatch) {
+        return getConditional("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemByOwner(long userId) {
+    public ServerCall getItemByOwner(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text) {
-        return get("/search?text={text}", userId, Map.of("text", text));
+    public ServerCall searchItems(long userId, String text, int from, int size) {
+        return searchCache.get(text, from, size, () -> get("/search?text={text}&from={from}&size={size}", userId,
+                Map.of("text", text, "from", from, "size", size)));
+    }
+
+    public ServerCall getComments(long itemId, @Nullable String cursor, int size, long userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(CommentCreateDto commentDto, long itemId, long userId) {
+    public ServerCall addComment(CommentCreateDto commentDto, long itemId, long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,7 +17,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.client.ServerCall;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
@@ -24,56 +28,78 @@ import java.util.Collections;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
-@Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class ItemController {
+public abstract class ItemController<R> {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @RequestBody @Validated(Create.class) ItemDto itemDto) {
+    public R createItem(@RequestHeader(USER_ID_HEADER) long userId,
+                        @RequestBody @Validated(Create.class) ItemDto itemDto) {
         log.info("Creating item {}, userId={}", itemDto, userId);
-        return itemClient.createItem(userId, itemDto);
+        return respond(itemClient.createItem(userId, itemDto));
+    }
+
+    // Пачка проверяется целиком: любая невалидная строка — 400 для всего запроса
+    @PostMapping("/batch")
+    public R createItems(@RequestHeader(USER_ID_HEADER) long userId,
+                         @RequestBody @Validated(Create.class) ItemBatchDto batchDto) {
+        log.info("Creating items batch, size={}, userId={}", batchDto.getItems().size(), userId);
+        return respond(itemClient.createItems(userId, batchDto));
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@Validated(Update.class) @RequestBody ItemDto itemDto,
-                                             @PathVariable long itemId,
-                                             @RequestHeader(USER_ID_HEADER) long userId) {
+    public R updateItem(@Validated(Update.class) @RequestBody ItemDto itemDto,
+                        @PathVariable long itemId,
+                        @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Update item {}, itemId={} userId={}", itemDto, itemId, userId);
-        return itemClient.updateItem(itemDto, itemId, userId);
+        return respond(itemClient.updateItem(itemDto, itemId, userId));
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable long itemId, @RequestHeader(USER_ID_HEADER) long userId) {
+    public R getItemById(@PathVariable long itemId, @RequestHeader(USER_ID_HEADER) long userId,
+                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get item by itemId={}, userId={}", itemId, userId);
-        return itemClient.getItemById(itemId, userId);
+        return respond(itemClient.getItemById(itemId, userId, ifNoneMatch));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemByOwner(@RequestHeader(USER_ID_HEADER) long userId) {
+    public R getItemByOwner(@RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Get items by owner, userId={}", userId);
-        return itemClient.getItemByOwner(userId);
+        return respond(itemClient.getItemByOwner(userId));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @RequestParam(name = "text") String text) {
-        log.info("Search items by text={}", text);
+    public R searchItems(@RequestHeader(USER_ID_HEADER) long userId,
+                         @RequestParam(name = "text") String text,
+                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
+                         @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("Search items by text={}, from={}, size={}", text, from, size);
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return respond(ServerCall.of(ResponseEntity.ok(Collections.emptyList())));
         }
-        return itemClient.searchItems(userId, text);
+        return respond(itemClient.searchItems(userId, text, from, size));
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public R getComments(@PathVariable @Positive long itemId,
+                         @RequestHeader(USER_ID_HEADER) long userId,
+                         @RequestParam(name = "cursor", required = false) String cursor,
+                         @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("Get comments of item with id={}, cursor={}, size={}, userId={}", itemId, cursor, size, userId);
+        return respond(itemClient.getComments(itemId, cursor, size, userId));
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Valid @RequestBody CommentCreateDto commentDto,
-                                             @PathVariable @Positive long itemId,
-                                             @RequestHeader(USER_ID_HEADER) long userId) {
+    public R addComment(@Valid @RequestBody CommentCreateDto commentDto,
+                        @PathVariable @Positive long itemId,
+                        @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Add comment {} to item with id={}, userId{}", commentDto, itemId, userId);
-        return itemClient.addComment(commentDto, itemId, userId);
+        return respond(itemClient.addComment(commentDto, itemId, userId));
     }
+
+    // R и способ выполнить запрос к серверу задаёт режим шлюза: BlockingItemController или ReactiveItemController
+    protected abstract R respond(ServerCall call);
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "true")
+public class ReactiveItemController extends ItemController<Mono<ResponseEntity<Object>>> {
+
+    public ReactiveItemController(ItemClient itemClient) {
+        super(itemClient);
+    }
+
+    @Override
+    protected Mono<ResponseEntity<Object>> respond(ServerCall call) {
+        return call.exchange();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.ServerCall;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Кэш ответов /items/search для «головы» распределения запросов. Caffeine вытесняет и допускает записи
+// по частоте (W-TinyLFU), так что редкие запросы не вымывают популярные; вес записи — размер тела,
+// срок жизни короткий, т.к. об изменениях вещей шлюз не знает. Метрики — cache.* с тегом cache=items.search
+@Component
+public class SearchResultCache {
+    // вес ответа, который в режиме без passthrough хранится разобранным JSON: грубо на одну вещь
+    private static final int ESTIMATED_ITEM_BYTES = 256;
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> responses;
+
+    public SearchResultCache(@Value("${shareit-gateway.search-cache.enabled:true}") boolean enabled,
+                             @Value("${shareit-gateway.search-cache.ttl:30s}") Duration ttl,
+                             @Value("${shareit-gateway.search-cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(SearchResultCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "items.search");
+    }
+
+    // в кэш попадают только успешные ответы; загрузка идёт вне блокировок кэша
+    public ServerCall get(String text, int from, int size, Supplier<ServerCall> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = key(text, from, size);
+        ResponseEntity<Object> cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return ServerCall.of(cached);
+        }
+        return loader.get().doOnResponse(response -> {
+            if (response.getStatusCode() == HttpStatus.OK) {
+                responses.put(key, response);
+            }
+        });
+    }
+
+    // сервер ищет без учёта регистра, поэтому «Дрель» и «дрель» — один и тот же запрос
+    private static String key(String text, int from, int size) {
+        return text.toLowerCase(Locale.ROOT) + '|' + from + '|' + size;
+    }
+
+    private static int weigh(String key, ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        int bodyWeight;
+        if (body instanceof byte[] bytes) {
+            bodyWeight = bytes.length;
+        } else if (body instanceof List<?> items) {
+            bodyWeight = items.size() * ESTIMATED_ITEM_BYTES;
+        } else {
+            bodyWeight = ESTIMATED_ITEM_BYTES;
+        }
+        return key.length() * 2 + bodyWeight;
+    }
+}
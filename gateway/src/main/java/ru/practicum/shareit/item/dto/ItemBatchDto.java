@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.validation.Create;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchDto {
+    @NotEmpty(groups = {Create.class})
+    @Size(max = 5000, groups = {Create.class})
+    private List<@Valid ItemDto> items;
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "shareit-gateway.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        List<RouteLimiter> routes = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            String method = route.getMethod() == null || route.getMethod().isBlank() ? null : route.getMethod();
+            String name = (method == null ? "*" : method) + " " + route.getPattern();
+            routes.add(new RouteLimiter(name, method, PathPatternParser.defaultInstance.parse(route.getPattern()),
+                    route.getRate(), route.getBurst(), properties.getMaxBuckets(), properties.getIdleTimeout()));
+        }
+        RateLimitProperties.Limit defaultLimit = properties.getDefaultLimit();
+        RouteLimiter defaultRoute = new RouteLimiter("default", null, null,
+                defaultLimit.getRate(), defaultLimit.getBurst(), properties.getMaxBuckets(), properties.getIdleTimeout());
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(routes, defaultRoute, objectMapper, meterRegistry));
+        // раньше остальных фильтров: отказ не должен стоить ничего, кроме проверки корзины
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
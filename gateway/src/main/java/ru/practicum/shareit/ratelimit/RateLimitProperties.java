@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ограничение частоты запросов на пользователя (X-Sharer-User-Id) до обращения к серверу
+@Data
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // лимит для запросов, не попавших ни в один маршрут
+    private Limit defaultLimit = new Limit(50, 100);
+    // маршруты проверяются по порядку, срабатывает первый подходящий
+    private List<Route> routes = new ArrayList<>();
+    // верхняя граница числа корзин на маршрут; вытесняются самые давние
+    private long maxBuckets = 100_000;
+    // корзина без запросов дольше этого срока удаляется: она всё равно давно полная
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Data
+    public static class Limit {
+        // запросов в секунду в среднем
+        private double rate;
+        // сколько запросов можно сделать разом после простоя
+        private int burst;
+
+        public Limit() {
+        }
+
+        public Limit(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+
+    @Data
+    public static class Route {
+        // пусто — любой метод
+        private String method;
+        // шаблон пути, как в @RequestMapping: /items/search, /bookings/owner, /items/{itemId}
+        private String pattern;
+        private double rate;
+        private int burst;
+    }
+}
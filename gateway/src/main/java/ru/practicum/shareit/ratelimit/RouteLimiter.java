@@ -0,0 +1,50 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Лимит одного маршрута и корзины его пользователей
+class RouteLimiter {
+    @Getter
+    private final String name;
+    @Nullable
+    private final String method;
+    @Nullable
+    private final PathPattern pattern;
+    private final long emissionInterval;
+    private final long burstWindow;
+    private final Cache<Long, TokenBucket> buckets;
+
+    RouteLimiter(String name, @Nullable String method, @Nullable PathPattern pattern,
+                 double rate, int burst, long maxBuckets, Duration idleTimeout) {
+        if (rate <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Лимит маршрута " + name + " должен быть положительным");
+        }
+        this.name = name;
+        this.method = method;
+        this.pattern = pattern;
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstWindow = emissionInterval * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    boolean matches(String requestMethod, PathContainer path) {
+        return (method == null || method.equalsIgnoreCase(requestMethod))
+                && (pattern == null || pattern.matches(path));
+    }
+
+    long tryAcquire(long userId) {
+        long now = System.nanoTime();
+        return buckets.get(userId, id -> new TokenBucket(now)).tryAcquire(now, emissionInterval, burstWindow);
+    }
+}
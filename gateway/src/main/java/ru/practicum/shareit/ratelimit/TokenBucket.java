@@ -0,0 +1,29 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Корзина токенов в форме GCRA: всё состояние — одно «теоретическое время прибытия» следующего запроса,
+// обновляемое CAS без блокировок. Запрос проходит, если после него это время уходит вперёд
+// не дальше, чем на burst интервалов
+class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    // 0 — запрос пропущен, иначе сколько наносекунд подождать до следующей попытки
+    long tryAcquire(long now, long emissionInterval, long burstWindow) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + emissionInterval;
+            long ahead = next - now;
+            if (ahead > burstWindow) {
+                return ahead - burstWindow;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "false", matchIfMissing = true)
+public class BlockingItemRequestController extends ItemRequestController<ResponseEntity<Object>> {
+
+    public BlockingItemRequestController(ItemRequestClient itemRequestClient) {
+        super(itemRequestClient);
+    }
+
+    @Override
+    protected ResponseEntity<Object> respond(ServerCall call) {
+        return call.execute();
+    }
+}
@@ -3,13 +3,17 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerWebClientFactory;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,28 +21,49 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ValidatorCache validators, ClientHttpRequestFactory requestFactory,
+                             ServerWebClientFactory webClients,
+                             @Value("${shareit-server.passthrough}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClients.create(serverUrl + API_PREFIX),
+                validators,
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(ItemRequestCreateDto requestDto, Long userId) {
+    public ServerCall createItemRequest(ItemRequestCreateDto requestDto, Long userId) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getAllRequestsByUser(Long userId) {
-        return get("", userId);
+    public ServerCall getAllRequestsByUser(@Nullable String cursor, int size, Long userId) {
+        return getPage("", null, cursor, size, userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(int from, int size) {
-        return get("/all?from={from}&size={size}", null, Map.of("from", from, "size", size));
+    public ServerCall getAllRequests(@Nullable Integer from, @Nullable String cursor, int size) {
+        return getPage("/all", from, cursor, size, null);
     }
 
-    public ResponseEntity<Object> getRequestById(long requestId) {
-        return get("/" + requestId);
+    public ServerCall getRequestById(long requestId, @Nullable String ifNoneMatch) {
+        return getConditional("/" + requestId, null, ifNoneMatch);
+    }
+
+    private ServerCall getPage(String path, @Nullable Integer from, @Nullable String cursor, int size,
+                                           @Nullable Long userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder(path).append("?size={size}");
+        parameters.put("size", size);
+        if (cursor != null) {
+            query.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        } else if (from != null) {
+            query.append("&from={from}");
+            parameters.put("from", from);
+        }
+        return get(query.toString(), userId, parameters);
     }
 }
@@ -1,11 +1,11 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,41 +14,48 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.client.ServerCall;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
-@Controller
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class ItemRequestController {
+public abstract class ItemRequestController<R> {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@Validated @RequestBody ItemRequestCreateDto requestDto,
-                                                @RequestHeader(USER_ID_HEADER) Long userId) {
+    public R createBooking(@Validated @RequestBody ItemRequestCreateDto requestDto,
+                           @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Creating item request {}, userId={}", requestDto, userId);
-        return itemRequestClient.createItemRequest(requestDto, userId);
+        return respond(itemRequestClient.createItemRequest(requestDto, userId));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequestsByUser(@RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Get all item requests by user with id={}", userId);
-        return itemRequestClient.getAllRequestsByUser(userId);
+    public R getAllRequestsByUser(@RequestParam(name = "cursor", required = false) String cursor,
+                                  @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size,
+                                  @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Get all item requests by user with id={}, cursor={}, size={}", userId, cursor, size);
+        return respond(itemRequestClient.getAllRequestsByUser(cursor, size, userId));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestParam(name = "from") @PositiveOrZero int from,
-                                                @RequestParam(name = "size") @Positive int size) {
-        log.info("Get all item requests, page from={}, size={}", from, size);
-        return itemRequestClient.getAllRequests(from, size);
+    public R getAllRequests(@RequestParam(name = "from", required = false) @PositiveOrZero Integer from,
+                            @RequestParam(name = "cursor", required = false) String cursor,
+                            @RequestParam(name = "size", defaultValue = "20") @Positive @Max(100) int size) {
+        log.info("Get all item requests, from={}, cursor={}, size={}", from, cursor, size);
+        return respond(itemRequestClient.getAllRequests(from, cursor, size));
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable long requestId) {
+    public R getRequestById(@PathVariable long requestId,
+                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get item request by id={}", requestId);
-        return itemRequestClient.getRequestById(requestId);
+        return respond(itemRequestClient.getRequestById(requestId, ifNoneMatch));
     }
+
+    // R и способ выполнить запрос к серверу задаёт режим шлюза: BlockingItemRequestController или ReactiveItemRequestController
+    protected abstract R respond(ServerCall call);
 }
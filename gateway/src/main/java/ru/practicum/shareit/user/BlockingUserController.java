@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import ru.practicum.shareit.client.ServerCall;
+
+@Controller
+@ConditionalOnProperty(prefix = "shareit-server", name = "reactive", havingValue = "false", matchIfMissing = true)
+public class BlockingUserController extends UserController<ResponseEntity<Object>> {
+
+    public BlockingUserController(UserClient userClient) {
+        super(userClient);
+    }
+
+    @Override
+    protected ResponseEntity<Object> respond(ServerCall call) {
+        return call.execute();
+    }
+}
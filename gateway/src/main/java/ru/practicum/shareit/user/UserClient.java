@@ -3,11 +3,14 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerCall;
+import ru.practicum.shareit.client.ServerWebClientFactory;
+import ru.practicum.shareit.client.ValidatorCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +18,38 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ValidatorCache validators, ClientHttpRequestFactory requestFactory,
+                      ServerWebClientFactory webClients,
+                      @Value("${shareit-server.passthrough}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClients.create(serverUrl + API_PREFIX),
+                validators,
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public ServerCall createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, long userId) {
+    public ServerCall updateUser(UserDto userDto, long userId) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public ServerCall deleteUser(long userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId);
+    public ServerCall getUserById(long userId, @Nullable String ifNoneMatch) {
+        return getConditional("/" + userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public ServerCall getAllUsers() {
         return get("");
     }
 }
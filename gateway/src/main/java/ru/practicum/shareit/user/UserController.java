@@ -2,8 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,47 +10,52 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import ru.practicum.shareit.client.ServerCall;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
-@Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
-public class UserController {
+public abstract class UserController<R> {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public R createBooking(@Validated(Create.class) @RequestBody UserDto userDto) {
         log.info("Creating user {}", userDto);
-        return userClient.createUser(userDto);
+        return respond(userClient.createUser(userDto));
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@Validated(Update.class) @RequestBody UserDto userDto,
-                                             @PathVariable long userId) {
+    public R updateUser(@Validated(Update.class) @RequestBody UserDto userDto,
+                        @PathVariable long userId) {
         log.info("Update user {}, userId={}", userDto, userId);
-        return userClient.updateUser(userDto, userId);
+        return respond(userClient.updateUser(userDto, userId));
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable long userId) {
+    public R deleteUser(@PathVariable long userId) {
         log.info("Delete user by id={}", userId);
-        return userClient.deleteUser(userId);
+        return respond(userClient.deleteUser(userId));
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public R getUserById(@PathVariable long userId,
+                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get user by id={}", userId);
-        return userClient.getUserById(userId);
+        return respond(userClient.getUserById(userId, ifNoneMatch));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public R getAllUsers() {
         log.info("Get all users");
-        return userClient.getAllUsers();
+        return respond(userClient.getAllUsers());
     }
+
+    // R и способ выполнить запрос к серверу задаёт режим шлюза: BlockingUserController или ReactiveUserController
+    protected abstract R respond(ServerCall call);
 }
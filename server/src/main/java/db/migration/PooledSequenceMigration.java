@@ -0,0 +1,35 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Переводит таблицу с IDENTITY на последовательность с шагом allocationSize для pooled-оптимизатора Hibernate.
+// Hibernate выдаёт идентификаторы (значение - шаг, значение], поэтому старт = max(id) + шаг.
+// Миграция на Java, т.к. стартовое значение зависит от данных, а setval в H2 нет
+public abstract class PooledSequenceMigration extends BaseJavaMigration {
+    private final String table;
+    private final String sequence;
+    private final int increment;
+
+    protected PooledSequenceMigration(String table, String sequence, int increment) {
+        this.table = table;
+        this.sequence = sequence;
+        this.increment = increment;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE " + sequence +
+                    " START WITH " + (maxId + increment) + " INCREMENT BY " + increment);
+        }
+    }
+}
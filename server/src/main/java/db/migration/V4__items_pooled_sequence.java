@@ -0,0 +1,7 @@
+package db.migration;
+
+public class V4__items_pooled_sequence extends PooledSequenceMigration {
+    public V4__items_pooled_sequence() {
+        super("items", "items_seq", 50);
+    }
+}
@@ -0,0 +1,7 @@
+package db.migration;
+
+public class V7__bookings_pooled_sequence extends PooledSequenceMigration {
+    public V7__bookings_pooled_sequence() {
+        super("bookings", "bookings_seq", 50);
+    }
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +16,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.intake.BookingIntake;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.pagination.PageSize;
 
-import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
@@ -27,13 +37,20 @@ import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingService bookingService;
+    // есть только при shareit.bookings.intake.enabled=true
+    private final ObjectProvider<BookingIntake> bookingIntake;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookingFullDto create(@RequestBody BookingDto bookingDto, @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("POST /bookings request: {}", bookingDto);
-        BookingFullDto createdBooking = bookingService.create(bookingDto, userId);
+        BookingIntake intake = bookingIntake.getIfAvailable();
+        BookingFullDto createdBooking = intake != null
+                ? intake.create(bookingDto, userId)
+                : bookingService.create(bookingDto, userId);
         log.info("POST /bookings response: {}", createdBooking);
         return createdBooking;
     }
@@ -48,6 +65,18 @@ public class BookingController {
         return approvedBooking;
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> decideBatch(@RequestBody BookingDecisionBatchDto decisionDto,
+                                                      @RequestHeader(USER_ID_HEADER) long userId) {
+        checkBatch(decisionDto);
+        log.info("PATCH /bookings/batch request: userId={}, approved={}, size={}",
+                userId, decisionDto.getApproved(), decisionDto.getBookingIds().size());
+        List<BookingDecisionResultDto> results = bookingService.decideBatch(
+                decisionDto.getBookingIds(), decisionDto.getApproved(), userId);
+        log.info("PATCH /bookings/batch response: userId={}, size={}", userId, results.size());
+        return results;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingFullDto getById(@PathVariable long bookingId, @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("GET /bookings/{} request", bookingId);
@@ -57,24 +86,53 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingFullDto> getByUser(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
-                                                @RequestHeader(USER_ID_HEADER) long userId) {
-        log.info("GET BY USER /bookings/{} request", stateValue);
+    public ResponseEntity<List<BookingFullDto>> getByUser(@RequestParam(name = "state", defaultValue = "ALL") String stateValue,
+                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                          @RequestParam(name = "size", required = false) Integer size,
+                                                          @RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("GET BY USER /bookings/{} request, cursor={}, size={}", stateValue, cursor, size);
         BookingState state = BookingState.from(stateValue);
         if (state == null) {
             throw new IllegalArgumentException("Unknown state: " + stateValue);
         }
-        Collection<BookingFullDto> bookings = bookingService.getByUser(state, userId);
-        log.info("GET BY USER /bookings/{} response: {}", stateValue, bookings.size());
-        return bookings;
+        KeysetPage<BookingFullDto> bookings = bookingService.getByUser(state, userId, KeysetCursor.decode(cursor), PageSize.orDefault(size, cursor));
+        log.info("GET BY USER /bookings/{} response: {}, next={}", stateValue,
+                bookings.getContent().size(), bookings.getNextCursor());
+        return bookings.toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public Collection<BookingFullDto> getByOwner(@RequestParam(name = "state", defaultValue = "ALL") BookingState state,
-                                                 @RequestHeader(USER_ID_HEADER) long userId) {
-        log.info("GET BY OWNER /bookings/owner/{} request", state);
-        Collection<BookingFullDto> bookings = bookingService.getByOwner(state, userId);
-        log.info("GET BY OWNER /bookings/owner/{} response: {}", state, bookings.size());
-        return bookings;
+    public ResponseEntity<List<BookingFullDto>> getByOwner(@RequestParam(name = "state", defaultValue = "ALL") BookingState state,
+                                                           @RequestParam(name = "cursor", required = false) String cursor,
+                                                           @RequestParam(name = "size", required = false) Integer size,
+                                                           @RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("GET BY OWNER /bookings/owner/{} request, cursor={}, size={}", state, cursor, size);
+        KeysetPage<BookingFullDto> bookings = bookingService.getByOwner(state, userId, KeysetCursor.decode(cursor), PageSize.orDefault(size, cursor));
+        log.info("GET BY OWNER /bookings/owner/{} response: {}, next={}", state,
+                bookings.getContent().size(), bookings.getNextCursor());
+        return bookings.toResponseEntity();
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("EXPORT BY OWNER /bookings/owner/export request, userId={}", userId);
+        StreamingResponseBody body = bookingService.exportByOwner(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // те же границы, что у шлюза, — на случай запросов в обход него
+    private static void checkBatch(BookingDecisionBatchDto decisionDto) {
+        List<Long> bookingIds = decisionDto.getBookingIds();
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("В пачке должно быть от 1 до " + MAX_BATCH_SIZE + " бронирований");
+        }
+        if (bookingIds.contains(null)) {
+            throw new IllegalArgumentException("Пустой id бронирования в пачке");
+        }
+        if (decisionDto.getApproved() == null) {
+            throw new IllegalArgumentException("Не указано решение approved");
+        }
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingDecisionOutcome {
+    UPDATED, // статус изменён
+    NOT_FOUND, // бронирования нет
+    NOT_OWNER, // вещь принадлежит другому пользователю
+    NOT_WAITING, // решение по бронированию уже принято
+}
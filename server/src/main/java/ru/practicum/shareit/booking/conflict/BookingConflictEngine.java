@@ -0,0 +1,205 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Индекс активных бронирований по вещам: проверка пересечения за O(log n) без чтения таблицы bookings.
+// Таймлайн вещи поднимается из БД при первом обращении, дальше поддерживается create/approve.
+// Вещи распределены по полосам блокировок, так что горячая вещь не тормозит остальные.
+// Таймлайны вещей, к которым давно не обращались, и удалённых вещей выгружаются из памяти
+@Component
+@Slf4j
+public class BookingConflictEngine implements DisposableBean {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService evictor;
+
+    public BookingConflictEngine(BookingRepository bookingRepository,
+                                 @Value("${shareit.bookings.conflict.lock-stripes:64}") int stripeCount,
+                                 @Value("${shareit.bookings.conflict.idle-timeout:30m}") Duration idleTimeout) {
+        this.bookingRepository = bookingRepository;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-timeline-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = idleTimeout.toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Атомарно проверяет пересечение и занимает интервал. При откате текущей транзакции резерв снимается
+    public BookingInterval reserve(long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingInterval reservation = new BookingInterval(null, start, end);
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timeline(itemId);
+            timeline.evictEndedBefore(LocalDateTime.now());
+            if (timeline.hasOverlap(start, end)) {
+                log.debug("BOOKING CONFLICT. Вещь {} уже забронирована на период {} - {}", itemId, start, end);
+                throw new BookingConflictException("Вещь уже забронирована на выбранные даты");
+            }
+            timeline.add(reservation);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                timeline.reservationStarted();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        complete(itemId, reservation, status == STATUS_COMMITTED);
+                    }
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+        return reservation;
+    }
+
+    public void bind(long itemId, BookingInterval reservation, long bookingId) {
+        withTimeline(itemId, timeline -> timeline.bind(reservation, bookingId));
+    }
+
+    // Освобождает интервал бронирования после фиксации транзакции (например, при отклонении)
+    public void releaseAfterCommit(long itemId, long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(itemId, bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(itemId, bookingId);
+            }
+        });
+    }
+
+    public void release(long itemId, long bookingId) {
+        withTimeline(itemId, timeline -> timeline.removeBooking(bookingId));
+    }
+
+    // Удаление пользователя каскадом удаляет его вещи и бронирования мимо сервиса бронирований:
+    // таймлайны удаляемых вещей выгружаются, а его бронирования чужих вещей снимаются. Вызывать до удаления
+    public void forgetUserAfterCommit(long userId, Collection<Long> deletedItemIds) {
+        List<BookingDecisionTarget> booked = bookingRepository.findTargetsByBooker(userId, ACTIVE_STATUSES);
+        Runnable forget = () -> {
+            deletedItemIds.forEach(this::evict);
+            booked.forEach(target -> release(target.getItemId(), target.getBookingId()));
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget.run();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+    }
+
+    private void complete(long itemId, BookingInterval reservation, boolean committed) {
+        withTimeline(itemId, timeline -> {
+            timeline.reservationCompleted();
+            if (!committed) {
+                timeline.remove(reservation);
+            }
+        });
+    }
+
+    private void evict(long itemId) {
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            timelines.remove(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // таймлайн без обращений дольше idle-timeout и без незафиксированных резервов при следующем
+    // обращении просто перечитается из БД
+    void evictIdle() {
+        long idleSince = System.nanoTime() - idleTimeoutNanos;
+        for (Long itemId : timelines.keySet()) {
+            ReentrantLock lock = stripeFor(itemId);
+            lock.lock();
+            try {
+                ItemTimeline timeline = timelines.get(itemId);
+                if (timeline != null && timeline.isIdleSince(idleSince)) {
+                    timelines.remove(itemId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    int loadedTimelines() {
+        return timelines.size();
+    }
+
+    private void withTimeline(long itemId, Consumer<ItemTimeline> action) {
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timelines.get(itemId);
+            // таймлайн ещё не загружен: при загрузке он и так прочитает актуальное состояние из БД
+            if (timeline != null) {
+                timeline.touch();
+                action.accept(timeline);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // вызывается только под блокировкой полосы вещи
+    private ItemTimeline timeline(long itemId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            List<BookingInterval> active = bookingRepository.findActiveIntervals(itemId, ACTIVE_STATUSES, LocalDateTime.now());
+            timeline = new ItemTimeline(active);
+            timelines.put(itemId, timeline);
+        }
+        timeline.touch();
+        return timeline;
+    }
+
+    private ReentrantLock stripeFor(long itemId) {
+        return stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Интервал бронирования в индексе вещи. Пока бронирование не сохранено, bookingId == null (это резерв)
+@Getter
+public class BookingInterval {
+    static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getSeq);
+    static final Comparator<BookingInterval> BY_END = Comparator
+            .comparing(BookingInterval::getEnd)
+            .thenComparingLong(BookingInterval::getSeq);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final long seq;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private volatile Long bookingId;
+
+    public BookingInterval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        this.seq = SEQUENCE.incrementAndGet();
+        this.bookingId = bookingId;
+        this.start = start;
+        this.end = end;
+    }
+
+    void bind(long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && otherStart.isBefore(end);
+    }
+}
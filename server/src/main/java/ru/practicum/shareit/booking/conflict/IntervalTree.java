@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.conflict;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Дерево интервалов: декартово дерево по началу интервала, в каждом узле — максимальный end поддерева.
+// Вставка, удаление и поиск пересечения — O(log n) в среднем. Не потокобезопасно
+class IntervalTree {
+    private Node root;
+
+    boolean overlapsAny(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.overlaps(start, end)) {
+                return true;
+            }
+            // если слева есть интервал, заканчивающийся после start, и он не пересекается,
+            // то он начинается не раньше end — а правее начала ещё позже, искать там нечего
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    void add(BookingInterval interval) {
+        root = insert(root, new Node(interval));
+    }
+
+    void remove(BookingInterval interval) {
+        root = delete(root, interval);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (BookingInterval.BY_START.compare(added.interval, node.interval) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = BookingInterval.BY_START.compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = delete(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    // все интервалы left меньше всех интервалов right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        right.update();
+        return right;
+    }
+
+    private static class Node {
+        private final BookingInterval interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private LocalDateTime maxEnd;
+
+        Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+
+        void update() {
+            maxEnd = interval.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
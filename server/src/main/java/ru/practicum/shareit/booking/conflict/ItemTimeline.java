@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.conflict;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+// Активные (WAITING/APPROVED) интервалы одной вещи: дерево интервалов для проверки пересечения за O(log n)
+// и множество по end для вытеснения завершившихся.
+// Не потокобезопасно: все обращения идут под блокировкой полосы вещи в BookingConflictEngine
+class ItemTimeline {
+    private final IntervalTree tree = new IntervalTree();
+    private final NavigableSet<BookingInterval> byEnd = new TreeSet<>(BookingInterval.BY_END);
+    private final Map<Long, BookingInterval> byBookingId = new HashMap<>();
+    // резервы незафиксированных транзакций: в БД их ещё нет, поэтому такой таймлайн нельзя выгружать
+    private int pending;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    ItemTimeline(Collection<BookingInterval> active) {
+        active.forEach(this::add);
+    }
+
+    boolean hasOverlap(LocalDateTime start, LocalDateTime end) {
+        return tree.overlapsAny(start, end);
+    }
+
+    void add(BookingInterval interval) {
+        tree.add(interval);
+        byEnd.add(interval);
+        if (interval.getBookingId() != null) {
+            byBookingId.put(interval.getBookingId(), interval);
+        }
+    }
+
+    void bind(BookingInterval interval, long bookingId) {
+        interval.bind(bookingId);
+        byBookingId.put(bookingId, interval);
+    }
+
+    void remove(BookingInterval interval) {
+        if (byEnd.remove(interval)) {
+            tree.remove(interval);
+        }
+        if (interval.getBookingId() != null) {
+            byBookingId.remove(interval.getBookingId());
+        }
+    }
+
+    void removeBooking(long bookingId) {
+        BookingInterval interval = byBookingId.remove(bookingId);
+        if (interval != null && byEnd.remove(interval)) {
+            tree.remove(interval);
+        }
+    }
+
+    // завершившиеся интервалы больше ни с чем не пересекутся
+    void evictEndedBefore(LocalDateTime moment) {
+        while (!byEnd.isEmpty() && byEnd.first().getEnd().isBefore(moment)) {
+            BookingInterval interval = byEnd.pollFirst();
+            tree.remove(interval);
+            if (interval.getBookingId() != null) {
+                byBookingId.remove(interval.getBookingId());
+            }
+        }
+    }
+
+    void reservationStarted() {
+        pending++;
+    }
+
+    void reservationCompleted() {
+        pending--;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    boolean isIdleSince(long nanos) {
+        return pending == 0 && lastAccessNanos - nanos < 0;
+    }
+}
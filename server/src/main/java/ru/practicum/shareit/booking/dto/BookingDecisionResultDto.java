@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private long bookingId;
+    private BookingDecisionOutcome outcome;
+    private BookingStatus status; // статус после обработки, если он известен вызывающему
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingStatus;
+
+// Минимум для решения по бронированию: без загрузки графа Booking -> Item -> User
+@Getter
+@AllArgsConstructor
+public class BookingDecisionTarget {
+    private final long bookingId;
+    private final long itemId;
+    private final long ownerId;
+    private final BookingStatus status;
+}
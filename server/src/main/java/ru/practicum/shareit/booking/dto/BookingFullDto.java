@@ -17,4 +17,18 @@ public class BookingFullDto {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    // плоский конструктор для JPQL-проекций (constructor expression не умеет вложенные new)
+    public BookingFullDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                          Long bookerId, String bookerName, String bookerEmail) {
+        this(
+                id,
+                start,
+                end,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail),
+                status
+        );
+    }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.intake;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingIntakeOverloadedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Очередь приёма POST /bookings: заявки копятся в неблокирующей ограниченной очереди,
+// один писатель забирает их пачками (до maxBatchSize или по истечении linger) и фиксирует
+// каждую пачку одной транзакцией (BookingService.createAll). Вызывающий поток ждёт результат своей заявки
+@Component
+@ConditionalOnProperty(prefix = "shareit.bookings.intake", name = "enabled", havingValue = "true")
+@Slf4j
+public class BookingIntake {
+    private final BookingService bookingService;
+    private final BookingIntakeProperties properties;
+    private final ConcurrentLinkedQueue<PendingBooking> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public BookingIntake(BookingService bookingService, BookingIntakeProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getCapacity() <= 0 || properties.getMaxBatchSize() <= 0) {
+            throw new IllegalArgumentException("Ёмкость очереди и размер пачки должны быть положительными");
+        }
+        this.bookingService = bookingService;
+        this.properties = properties;
+        Gauge.builder("shareit.bookings.intake.queue", size, AtomicInteger::get).register(meterRegistry);
+        this.writer = new Thread(this::drain, "booking-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public BookingFullDto create(BookingDto bookingDto, long userId) {
+        if (size.incrementAndGet() > properties.getCapacity()) {
+            size.decrementAndGet();
+            throw new BookingIntakeOverloadedException("Очередь бронирований переполнена, повторите запрос позже");
+        }
+        PendingBooking pending = new PendingBooking(bookingDto, userId);
+        queue.offer(pending);
+        LockSupport.unpark(writer);
+        try {
+            return pending.getResult().get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new BookingIntakeOverloadedException("Бронирование не записано за " + properties.getTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingIntakeOverloadedException("Ожидание записи бронирования прервано");
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(properties.getTimeout().toMillis());
+    }
+
+    private void drain() {
+        long linger = properties.getLinger().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+        while (running || !queue.isEmpty()) {
+            PendingBooking first = queue.poll();
+            if (first == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+            batch.add(first);
+            long deadline = System.nanoTime() + linger;
+            while (batch.size() < maxBatchSize) {
+                PendingBooking next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            size.addAndGet(-batch.size());
+            commit(batch);
+        }
+    }
+
+    // откат пачки (ошибка БД) отдаётся всем её заявкам, ещё не получившим ответ
+    private void commit(List<PendingBooking> batch) {
+        try {
+            bookingService.createAll(batch);
+        } catch (RuntimeException e) {
+            log.error("BOOKING INTAKE. Пачка из {} заявок не записана", batch.size(), e);
+            batch.forEach(pending -> pending.fail(e));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.intake;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.bookings.intake")
+public class BookingIntakeProperties {
+    private boolean enabled = false;
+    // сколько заявок может ждать записи; сверх этого POST /bookings получает 503
+    private int capacity = 10_000;
+    // заявок в одной транзакции
+    private int maxBatchSize = 100;
+    // сколько писатель ждёт добора пачки после первой заявки
+    private Duration linger = Duration.ofMillis(5);
+    // сколько вызывающий ждёт фиксации своей пачки
+    private Duration timeout = Duration.ofSeconds(5);
+}
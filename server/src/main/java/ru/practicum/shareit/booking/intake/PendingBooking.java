@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.intake;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+
+import java.util.concurrent.CompletableFuture;
+
+// Заявка на бронирование в очереди приёма. Результат выдаётся только после фиксации пачки:
+// до неё созданное бронирование лишь подготовлено (prepared)
+@Getter
+@RequiredArgsConstructor
+public class PendingBooking {
+    private final BookingDto bookingDto;
+    private final long userId;
+    private final CompletableFuture<BookingFullDto> result = new CompletableFuture<>();
+    private BookingFullDto prepared;
+
+    public void prepare(BookingFullDto booking) {
+        this.prepared = booking;
+    }
+
+    public void fail(Throwable cause) {
+        result.completeExceptionally(cause);
+    }
+
+    // вызывается после коммита пачки
+    public void complete() {
+        if (prepared != null) {
+            result.complete(prepared);
+        }
+    }
+}
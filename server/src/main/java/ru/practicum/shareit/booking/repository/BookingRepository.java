@@ -1,42 +1,121 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.conflict.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findBookingsByBookerIdAndEndBeforeOrderByStartDesc(long bookerId, LocalDateTime now);
+    // Листинги собираются одной проекцией прямо в BookingFullDto: без управляемых сущностей и догрузки графа
+    String FULL_DTO_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingFullDto(" +
+            "b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.request.id, " +
+            "u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
 
-    List<Booking> findBookingsByBookerIdAndStartAfterOrderByStartDesc(long bookerId, LocalDateTime now);
+    // keyset по (start DESC, id DESC): курсор — последняя выданная запись
+    String KEYSET_PAGE = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC";
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND :currentTime BETWEEN b.start AND b.end")
-    List<Booking> findCurrentBookings(long bookerId, LocalDateTime currentTime);
+    @Query(FULL_DTO_SELECT + "WHERE u.id = :bookerId " + KEYSET_PAGE)
+    List<BookingFullDto> findPageByBooker(long bookerId, LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findBookingsByBookerIdAndStatusEqualsOrderByStartDesc(long bookerId, BookingStatus status);
+    @Query(FULL_DTO_SELECT + "WHERE u.id = :bookerId AND b.end < :now " + KEYSET_PAGE)
+    List<BookingFullDto> findPastPageByBooker(long bookerId, LocalDateTime now,
+                                              LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(long bookerId);
+    @Query(FULL_DTO_SELECT + "WHERE u.id = :bookerId AND b.start > :now " + KEYSET_PAGE)
+    List<BookingFullDto> findFuturePageByBooker(long bookerId, LocalDateTime now,
+                                                LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(long ownerId, LocalDateTime now);
+    @Query(FULL_DTO_SELECT + "WHERE u.id = :bookerId AND :now BETWEEN b.start AND b.end " + KEYSET_PAGE)
+    List<BookingFullDto> findCurrentPageByBooker(long bookerId, LocalDateTime now,
+                                                 LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(long ownerId, LocalDateTime now);
+    @Query(FULL_DTO_SELECT + "WHERE u.id = :bookerId AND b.status = :status " + KEYSET_PAGE)
+    List<BookingFullDto> findPageByBookerAndStatus(long bookerId, BookingStatus status,
+                                                   LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    @Query("SELECT b FROM Booking b join Item i WHERE i.owner.id = :ownerId AND :currentTime BETWEEN b.start AND b.end")
-    List<Booking> findCurrentBookingsByOwner(long ownerId, LocalDateTime currentTime);
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId " + KEYSET_PAGE)
+    List<BookingFullDto> findPageByOwner(long ownerId, LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findBookingsByItemOwnerIdAndStatusOrderByStartDesc(long ownerId, BookingStatus status);
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId AND b.end < :now " + KEYSET_PAGE)
+    List<BookingFullDto> findPastPageByOwner(long ownerId, LocalDateTime now,
+                                             LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(long ownerId);
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId AND b.start > :now " + KEYSET_PAGE)
+    List<BookingFullDto> findFuturePageByOwner(long ownerId, LocalDateTime now,
+                                               LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findByItemIdInAndStatus(Set<Long> itemIds, BookingStatus status);
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId AND :now BETWEEN b.start AND b.end " + KEYSET_PAGE)
+    List<BookingFullDto> findCurrentPageByOwner(long ownerId, LocalDateTime now,
+                                                LocalDateTime cursorStart, long cursorId, Pageable page);
 
-    List<Booking> findByItemIdAndStatus(long itemId, BookingStatus status);
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId AND b.status = :status " + KEYSET_PAGE)
+    List<BookingFullDto> findPageByOwnerAndStatus(long ownerId, BookingStatus status,
+                                                  LocalDateTime cursorStart, long cursorId, Pageable page);
+
+    // Выгрузка всей истории владельца однонаправленным курсором: строки читаются порциями по fetch size
+    // и сразу уходят клиенту, контекст персистентности не растёт (проекция в DTO, не сущности).
+    // Вызывать внутри транзакции и закрывать поток
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(FULL_DTO_SELECT + "WHERE i.owner.id = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingFullDto> streamByOwner(long ownerId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDecisionTarget(b.id, i.id, i.owner.id, b.status) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id IN :bookingIds")
+    List<BookingDecisionTarget> findDecisionTargets(Collection<Long> bookingIds);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDecisionTarget(b.id, i.id, i.owner.id, b.status) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.booker.id = :bookerId AND b.status IN :statuses")
+    List<BookingDecisionTarget> findTargetsByBooker(long bookerId, Collection<BookingStatus> statuses);
+
+    // Условие на текущий статус защищает от гонки с одиночным PATCH /bookings/{id}
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id IN :bookingIds AND b.status = :expected")
+    int updateStatus(Collection<Long> bookingIds, BookingStatus expected, BookingStatus status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.conflict.BookingInterval(b.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :now")
+    List<BookingInterval> findActiveIntervals(long itemId, Collection<BookingStatus> statuses, LocalDateTime now);
+
+    // last/next по каждой вещи за один запрос: завершённые нумеруются внутри вещи по end DESC,
+    // будущие — по start ASC, наружу уходят только первые строки — не больше двух на вещь.
+    // :now только в WHERE: параметр внутри OVER (...) Hibernate 6.5 разбирает с ошибкой
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "e.id, e.startTime, e.endTime, e.itemId, e.bookerId, e.status) " +
+            "FROM (SELECT b.id AS id, b.start AS startTime, b.end AS endTime, " +
+            "b.item.id AS itemId, b.booker.id AS bookerId, b.status AS status, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item.id ORDER BY b.end DESC, b.id DESC) AS bookingRank " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.end < :now " +
+            "UNION ALL " +
+            "SELECT b.id, b.start, b.end, b.item.id, b.booker.id, b.status, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item.id ORDER BY b.start ASC, b.id ASC) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.start > :now) e " +
+            "WHERE e.bookingRank = 1")
+    List<BookingDto> findLastAndNext(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
 
     List<Booking> findByItemIdAndBookerIdAndEndBefore(long itemId, long bookerId, LocalDateTime now);
 }
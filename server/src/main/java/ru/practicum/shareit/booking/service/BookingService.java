@@ -1,19 +1,31 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.intake.PendingBooking;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 
-import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     BookingFullDto create(BookingDto bookingDto, long userId);
 
+    void createAll(List<PendingBooking> pending);
+
     BookingFullDto approve(long bookingId, boolean approved, long userId);
 
+    List<BookingDecisionResultDto> decideBatch(List<Long> bookingIds, boolean approved, long userId);
+
     BookingFullDto getById(long bookingId, long userId);
 
-    Collection<BookingFullDto> getByUser(BookingState state, long userId);
+    KeysetPage<BookingFullDto> getByUser(BookingState state, long userId, KeysetCursor cursor, @Nullable Integer size);
+
+    KeysetPage<BookingFullDto> getByOwner(BookingState state, long userId, KeysetCursor cursor, @Nullable Integer size);
 
-    Collection<BookingFullDto> getByOwner(BookingState state, long userId);
+    StreamingResponseBody exportByOwner(long userId);
 }
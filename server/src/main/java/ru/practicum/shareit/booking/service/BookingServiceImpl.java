@@ -1,43 +1,75 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.conflict.BookingConflictEngine;
+import ru.practicum.shareit.booking.conflict.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.intake.PendingBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.ItemAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final BookingConflictEngine conflictEngine;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     @Transactional
     @Override
@@ -57,10 +89,13 @@ public class BookingServiceImpl implements BookingService {
             throw new ItemAvailableException("Данный предмет недоступен для аренды сейчас");
         }
 
+        BookingInterval reservation = conflictEngine.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
         Booking booking = bookingMapper.dtoToBooking(bookingDto, item, user);
         booking.setStatus(BookingStatus.WAITING);
 
         booking = bookingRepository.save(booking);
+        conflictEngine.bind(item.getId(), reservation, booking.getId());
 
         return bookingMapper.bookingToFullDto(
                 booking,
@@ -69,6 +104,71 @@ public class BookingServiceImpl implements BookingService {
         );
     }
 
+    // Групповая запись заявок из очереди приёма (BookingIntake): одна транзакция и пакетная вставка на всю пачку.
+    // Ошибка проверки заявки сразу отдаётся только ей, созданные бронирования остальных — после коммита
+    @Transactional
+    @Override
+    public void createAll(List<PendingBooking> pending) {
+        Set<Long> userIds = pending.stream()
+                .map(PendingBooking::getUserId)
+                .collect(Collectors.toSet());
+        Set<Long> itemIds = pending.stream()
+                .map(booking -> booking.getBookingDto().getItemId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<PendingBooking> accepted = new ArrayList<>(pending.size());
+        List<Booking> bookings = new ArrayList<>(pending.size());
+        List<BookingInterval> reservations = new ArrayList<>(pending.size());
+        for (PendingBooking request : pending) {
+            BookingDto bookingDto = request.getBookingDto();
+            try {
+                User user = users.get(request.getUserId());
+                if (user == null) {
+                    log.debug("CREATE BOOKINGS BATCH. Пользователь с айди {} не найден", request.getUserId());
+                    throw new NotFoundException("Пользователь с id=" + request.getUserId() + " не существует");
+                }
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    log.debug("CREATE BOOKINGS BATCH. Предмет с айди {} не найден", bookingDto.getItemId());
+                    throw new NotFoundException("Предмет с id=" + bookingDto.getItemId() + " не существует");
+                }
+                if (!item.getAvailable()) {
+                    throw new ItemAvailableException("Данный предмет недоступен для аренды сейчас");
+                }
+                reservations.add(conflictEngine.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+                Booking booking = bookingMapper.dtoToBooking(bookingDto, item, user);
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+                accepted.add(request);
+            } catch (NotFoundException | ItemAvailableException | BookingConflictException e) {
+                request.fail(e);
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            conflictEngine.bind(booking.getItem().getId(), reservations.get(i), booking.getId());
+            accepted.get(i).prepare(bookingMapper.bookingToFullDto(
+                    booking,
+                    itemMapper.itemToDTO(booking.getItem()),
+                    userMapper.userToDto(booking.getBooker())
+            ));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accepted.forEach(PendingBooking::complete);
+            }
+        });
+        log.debug("CREATE BOOKINGS BATCH. Заявок {}, создано {}", pending.size(), saved.size());
+    }
+
     @Transactional
     @Override
     public BookingFullDto approve(long bookingId, boolean approved, long userId) {
@@ -83,7 +183,16 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessException("Вы не являетесь владельцем предмета");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        long itemId = booking.getItem().getId();
+        if (!approved) {
+            conflictEngine.releaseAfterCommit(itemId, bookingId);
+        } else if (previousStatus == BookingStatus.REJECTED) {
+            // отклонённое бронирование не занимало интервал — перед одобрением занимаем его заново
+            BookingInterval reservation = conflictEngine.reserve(itemId, booking.getStart(), booking.getEnd());
+            conflictEngine.bind(itemId, reservation, bookingId);
+        }
 
         return bookingMapper.bookingToFullDto(
                 booking,
@@ -92,6 +201,52 @@ public class BookingServiceImpl implements BookingService {
         );
     }
 
+    // Решение по пачке WAITING-бронирований: одна выборка (id, вещь, владелец, статус) и один UPDATE
+    @Transactional
+    @Override
+    public List<BookingDecisionResultDto> decideBatch(List<Long> bookingIds, boolean approved, long userId) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingDecisionTarget> targets = bookingRepository.findDecisionTargets(ids).stream()
+                .collect(Collectors.toMap(BookingDecisionTarget::getBookingId, Function.identity()));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        List<Long> eligible = targets.values().stream()
+                .filter(target -> target.getOwnerId() == userId && target.getStatus() == BookingStatus.WAITING)
+                .map(BookingDecisionTarget::getBookingId)
+                .collect(Collectors.toList());
+        Set<Long> lost = Set.of();
+        if (!eligible.isEmpty()) {
+            int updated = bookingRepository.updateStatus(eligible, BookingStatus.WAITING, status);
+            if (updated != eligible.size()) {
+                // часть бронирований успели решить параллельно — перечитываем, какие именно
+                lost = bookingRepository.findDecisionTargets(eligible).stream()
+                        .filter(target -> target.getStatus() != status)
+                        .map(BookingDecisionTarget::getBookingId)
+                        .collect(Collectors.toSet());
+            }
+        }
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookingDecisionTarget target = targets.get(id);
+            if (target == null) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_FOUND, null));
+            } else if (target.getOwnerId() != userId) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_OWNER, null));
+            } else if (target.getStatus() != BookingStatus.WAITING) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_WAITING, target.getStatus()));
+            } else if (lost.contains(id)) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionOutcome.NOT_WAITING, null));
+            } else {
+                if (!approved) {
+                    conflictEngine.releaseAfterCommit(target.getItemId(), id);
+                }
+                results.add(new BookingDecisionResultDto(id, BookingDecisionOutcome.UPDATED, status));
+            }
+        }
+        return results;
+    }
+
     @Transactional(readOnly = true)
     @Override
     // (включая его статус). Может быть выполнено либо автором бронирования, либо владельцем вещи
@@ -118,61 +273,85 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<BookingFullDto> getByUser(BookingState state, long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.debug("GET BY USER. Пользователь с айди {} не найден", userId);
-                    return new NotFoundException("Пользователь с id=" + userId + " не существует");
-                });
+    public KeysetPage<BookingFullDto> getByUser(BookingState state, long userId, KeysetCursor cursor, @Nullable Integer size) {
+        if (!userIdIndex.exists(userId)) {
+            log.debug("GET BY USER. Пользователь с айди {} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
 
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state) {
-            case PAST -> bookingRepository.findBookingsByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case FUTURE -> bookingRepository.findBookingsByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case CURRENT -> bookingRepository.findCurrentBookings(userId, now);
-            case WAITING ->
-                    bookingRepository.findBookingsByBookerIdAndStatusEqualsOrderByStartDesc(userId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findBookingsByBookerIdAndStatusEqualsOrderByStartDesc(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
+        LocalDateTime cursorStart = cursor.getTimestamp();
+        long cursorId = cursor.getId();
+        Pageable page = KeysetPage.request(size);
+        List<BookingFullDto> bookings = switch (state) {
+            case PAST -> bookingRepository.findPastPageByBooker(userId, now, cursorStart, cursorId, page);
+            case FUTURE -> bookingRepository.findFuturePageByBooker(userId, now, cursorStart, cursorId, page);
+            case CURRENT -> bookingRepository.findCurrentPageByBooker(userId, now, cursorStart, cursorId, page);
+            case WAITING -> bookingRepository.findPageByBookerAndStatus(
+                    userId, BookingStatus.WAITING, cursorStart, cursorId, page);
+            case REJECTED -> bookingRepository.findPageByBookerAndStatus(
+                    userId, BookingStatus.REJECTED, cursorStart, cursorId, page);
+            default -> bookingRepository.findPageByBooker(userId, cursorStart, cursorId, page);
         };
 
-        return bookings.stream()
-                .map(b -> {
-                    ItemDto itemDto = itemMapper.itemToDTO(b.getItem());
-                    UserDto userDto = userMapper.userToDto(b.getBooker());
-                    return bookingMapper.bookingToFullDto(b, itemDto, userDto);
-                })
-                .collect(Collectors.toList());
+        return KeysetPage.of(bookings, size, b -> new KeysetCursor(b.getStart(), b.getId()));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<BookingFullDto> getByOwner(BookingState state, long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.debug("GET BY OWNER. Пользователь с айди {} не найден", userId);
-                    return new NotFoundException("Пользователь с id=" + userId + " не существует");
-                });
+    public KeysetPage<BookingFullDto> getByOwner(BookingState state, long userId, KeysetCursor cursor, @Nullable Integer size) {
+        if (!userIdIndex.exists(userId)) {
+            log.debug("GET BY OWNER. Пользователь с айди {} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
 
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state) {
-            case PAST -> bookingRepository.findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case FUTURE -> bookingRepository.findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(userId, now);
-            case WAITING ->
-                    bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
+        LocalDateTime cursorStart = cursor.getTimestamp();
+        long cursorId = cursor.getId();
+        Pageable page = KeysetPage.request(size);
+        List<BookingFullDto> bookings = switch (state) {
+            case PAST -> bookingRepository.findPastPageByOwner(userId, now, cursorStart, cursorId, page);
+            case FUTURE -> bookingRepository.findFuturePageByOwner(userId, now, cursorStart, cursorId, page);
+            case CURRENT -> bookingRepository.findCurrentPageByOwner(userId, now, cursorStart, cursorId, page);
+            case WAITING -> bookingRepository.findPageByOwnerAndStatus(
+                    userId, BookingStatus.WAITING, cursorStart, cursorId, page);
+            case REJECTED -> bookingRepository.findPageByOwnerAndStatus(
+                    userId, BookingStatus.REJECTED, cursorStart, cursorId, page);
+            default -> bookingRepository.findPageByOwner(userId, cursorStart, cursorId, page);
         };
 
-        return bookings.stream()
-                .map(b -> {
-                    ItemDto itemDto = itemMapper.itemToDTO(b.getItem());
-                    UserDto userDto = userMapper.userToDto(b.getBooker());
-                    return bookingMapper.bookingToFullDto(b, itemDto, userDto);
-                })
-                .collect(Collectors.toList());
+        return KeysetPage.of(bookings, size, b -> new KeysetCursor(b.getStart(), b.getId()));
+    }
+
+    @Override
+    public StreamingResponseBody exportByOwner(long userId) {
+        // пользователь проверяется сразу, чтобы 404 ушёл до начала потока
+        if (!userIdIndex.exists(userId)) {
+            log.debug("EXPORT BY OWNER. Пользователь с айди {} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
+
+        ObjectWriter writer = objectMapper.writerFor(BookingFullDto.class);
+        return out -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<BookingFullDto> bookings = bookingRepository.streamByOwner(userId)) {
+                    int written = 0;
+                    Iterator<BookingFullDto> iterator = bookings.iterator();
+                    while (iterator.hasNext()) {
+                        out.write(writer.writeValueAsBytes(iterator.next()));
+                        out.write('\n');
+                        if (++written % EXPORT_FLUSH_ROWS == 0) {
+                            out.flush();
+                        }
+                    }
+                    out.flush();
+                    log.debug("EXPORT BY OWNER. Пользователю {} выгружено {} бронирований", userId, written);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
     }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Сброс регионов кэша второго уровня для изменений, которые Hibernate не видит:
+// каскадные ON DELETE в БД и прочие правки в обход сущностей
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictAfterCommit(Class<?>... entityClasses) {
+        List<Class<?>> classes = List.of(entityClasses);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(classes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(classes);
+            }
+        });
+    }
+
+    private void evict(List<Class<?>> classes) {
+        for (Class<?> entityClass : classes) {
+            entityManagerFactory.getCache().evict(entityClass);
+        }
+        log.debug("Регионы кэша второго уровня сброшены: {}", classes);
+    }
+}
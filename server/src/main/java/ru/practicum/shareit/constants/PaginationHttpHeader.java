@@ -0,0 +1,5 @@
+package ru.practicum.shareit.constants;
+
+public class PaginationHttpHeader {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Транзакции readOnly читают с реплик, всё остальное идёт в primary.
+// Решение принимается в момент взятия соединения, поэтому снаружи нужен LazyConnectionDataSourceProxy:
+// иначе соединение берётся в начале транзакции, когда признак readOnly ещё не выставлен
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final ReplicaSelection selection;
+    private final ReadYourWritesWindow stickiness;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    ReadReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas, ReplicaSelection selection,
+                                 ReadYourWritesWindow stickiness, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.stickiness = stickiness;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter();
+            return primary.getConnection();
+        }
+        Long userId = currentUserId();
+        if (userId != null && stickiness.isSticky(userId)) {
+            return primary.getConnection();
+        }
+        ReplicaNode replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replica.markDown();
+            log.warn("Реплика {} недоступна, чтение уходит в primary: {}", replica.getName(), e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    // с явными учётными данными реплики не выбираются: у их пулов свои, поэтому соединение даёт primary
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void destroy() {
+        // закрываем только пулы реплик: пул primary — отдельный бин (primaryDataSource), его закрывает Spring
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    @Nullable
+    private ReplicaNode selectReplica() {
+        List<ReplicaNode> healthy = replicas.stream()
+                .filter(ReplicaNode::isHealthy)
+                .toList();
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return switch (selection) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+            case LEAST_CONNECTIONS -> healthy.stream()
+                    .min(Comparator.comparingInt(ReplicaNode::activeConnections))
+                    .orElseThrow();
+        };
+    }
+
+    // пишущая транзакция пользователя после коммита открывает ему окно чтений из primary
+    private void rememberWriter() {
+        if (!stickiness.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stickiness.markWrite(userId);
+            }
+        });
+    }
+
+    private void checkReplicas() {
+        for (ReplicaNode replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            replica.check();
+            if (wasHealthy != replica.isHealthy()) {
+                log.info("Реплика {}: {}", replica.getName(), replica.isHealthy() ? "снова в ротации" : "выведена из ротации");
+            }
+        }
+    }
+
+    @Nullable
+    private static Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        String header = servletAttributes.getRequest().getHeader(USER_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
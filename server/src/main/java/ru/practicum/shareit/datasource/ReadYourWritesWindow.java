@@ -0,0 +1,38 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+// Пользователи, недавно писавшие в primary: их чтения не уходят на реплику, пока она может отставать
+class ReadYourWritesWindow {
+    private static final long MAX_USERS = 100_000;
+
+    @Nullable
+    private final Cache<Long, Boolean> recentWriters;
+
+    ReadYourWritesWindow(Duration window) {
+        this.recentWriters = window.isZero() || window.isNegative()
+                ? null
+                : Caffeine.newBuilder()
+                        .expireAfterWrite(window)
+                        .maximumSize(MAX_USERS)
+                        .build();
+    }
+
+    boolean isEnabled() {
+        return recentWriters != null;
+    }
+
+    void markWrite(long userId) {
+        if (recentWriters != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    boolean isSticky(long userId) {
+        return recentWriters != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
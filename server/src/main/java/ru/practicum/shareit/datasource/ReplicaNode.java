@@ -0,0 +1,42 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Пул одной реплики и её состояние в ротации
+@RequiredArgsConstructor
+class ReplicaNode {
+    @Getter
+    private final String name;
+    @Getter
+    private final HikariDataSource dataSource;
+    @Getter
+    private volatile boolean healthy = true;
+
+    Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    void markDown() {
+        healthy = false;
+    }
+
+    // до недоступной реплики не дождаться соединения дольше connectionTimeout её пула
+    void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            healthy = connection.isValid(1);
+        } catch (SQLException e) {
+            healthy = false;
+        }
+    }
+}
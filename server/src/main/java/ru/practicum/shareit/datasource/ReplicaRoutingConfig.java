@@ -0,0 +1,79 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Включается shareit.datasource.routing.enabled=true; без него остаётся обычный DataSource от Spring Boot
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.datasource.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                          ReplicaRoutingProperties properties,
+                                                          FlywayProperties flywayProperties) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            if (properties.isMigrateReplicas()) {
+                // мимо пула: соединения реплики только на чтение
+                Flyway.configure()
+                        .dataSource(replica.getUrl(), replica.getUsername(), replica.getPassword())
+                        .locations(flywayProperties.getLocations().toArray(String[]::new))
+                        .load()
+                        .migrate();
+            }
+            replicas.add(new ReplicaNode(replica.getName(), replicaDataSource(replica)));
+        }
+        log.info("Чтения readOnly-транзакций распределяются по репликам {} ({}), окно read-your-writes {}",
+                replicas.stream().map(ReplicaNode::getName).toList(), properties.getSelection(), properties.getStickiness());
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, properties.getSelection(),
+                new ReadYourWritesWindow(properties.getStickiness()), properties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaDataSource(ReplicaRoutingProperties.Replica replica) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(replica.getName());
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        if (replica.getDriverClassName() != null) {
+            dataSource.setDriverClassName(replica.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // упавшая при старте реплика не мешает подняться: она просто вне ротации до первой удачной проверки
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
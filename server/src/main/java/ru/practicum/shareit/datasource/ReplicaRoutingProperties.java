@@ -0,0 +1,34 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource.routing")
+public class ReplicaRoutingProperties {
+    private boolean enabled = false;
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+    // как часто проверять реплики, выпавшие из ротации (и живые — тоже)
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    // read-your-writes: сколько после записи чтения того же X-Sharer-User-Id идут в primary; 0 — выключено
+    private Duration stickiness = Duration.ZERO;
+    // накатывать миграции на реплики самим (локальный стенд на встроенных БД, где репликации нет)
+    private boolean migrateReplicas = false;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        // короткий таймаут: при недоступной реплике чтение быстрее уходит в primary
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+}
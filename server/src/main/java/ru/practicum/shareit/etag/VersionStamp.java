@@ -0,0 +1,20 @@
+package ru.practicum.shareit.etag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Слепок состояния, из которого строится представление сущности.
+// version — сумма версий самой сущности и всех строк, чьи поля попадают в ответ (версии только растут);
+// dependents и lastDependentId фиксируют состав зависимых строк (комментарии, ответы на запрос):
+// новая строка всегда увеличивает lastDependentId, удалённая — уменьшает dependents.
+@Getter
+@AllArgsConstructor
+public class VersionStamp {
+    private final long version;
+    private final long dependents;
+    private final long lastDependentId;
+
+    public String toEtag(String kind, long id) {
+        return "\"" + kind + id + "-" + version + "-" + dependents + "-" + lastDependentId + "\"";
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingIntakeOverloadedException extends RuntimeException {
+    public BookingIntakeOverloadedException(String message) {
+        super(message);
+    }
+}
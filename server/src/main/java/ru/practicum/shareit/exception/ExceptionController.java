@@ -2,6 +2,8 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +36,35 @@ public class ExceptionController {
                 .body(new ErrorMessage(exception.getMessage(), out.toString(StandardCharsets.UTF_8)));
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorMessage> handleConcurrentModification(OptimisticLockingFailureException exception) {
+        log.error("ERROR", exception);
+        final ByteArrayOutputStream out = getOutputStream(exception);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorMessage(exception.getMessage(), out.toString(StandardCharsets.UTF_8)));
+    }
+
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<ErrorMessage> handleBookingConflict(BookingConflictException exception) {
+        log.error("ERROR", exception);
+        final ByteArrayOutputStream out = getOutputStream(exception);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorMessage(exception.getMessage(), out.toString(StandardCharsets.UTF_8)));
+    }
+
+    // очередь приёма бронирований переполнена: клиенту стоит повторить чуть позже
+    @ExceptionHandler(BookingIntakeOverloadedException.class)
+    public ResponseEntity<ErrorMessage> handleIntakeOverloaded(BookingIntakeOverloadedException exception) {
+        log.error("ERROR", exception);
+        final ByteArrayOutputStream out = getOutputStream(exception);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorMessage(exception.getMessage(), out.toString(StandardCharsets.UTF_8)));
+    }
+
     @ExceptionHandler(UnauthorizedModification.class)
     public ResponseEntity<ErrorMessage> handleUnauthorized(UnauthorizedModification exception) {
         log.error("ERROR", exception);
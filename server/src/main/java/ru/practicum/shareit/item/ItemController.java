@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,13 +14,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
@@ -41,6 +49,16 @@ public class ItemController {
         return createdItem;
     }
 
+    @PostMapping("/batch")
+    public ItemBatchResultDto createBatch(@RequestBody ItemBatchDto batchDto,
+                                          @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("POST /items/batch request: userId={}, size={}", userId, batchDto.getItems().size());
+        ItemBatchResultDto result = itemService.createBatch(batchDto.getItems(), userId);
+        log.info("POST /items/batch response: userId={}, created={}, failed={}",
+                userId, result.getCreated(), result.getFailed());
+        return result;
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestBody ItemDto itemDto,
                           @PathVariable long itemId,
@@ -53,11 +71,16 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemInfoDto getById(@PathVariable long itemId, @RequestHeader(USER_ID_HEADER) Long userId) {
+    public ItemInfoDto getById(@PathVariable long itemId, @RequestHeader(USER_ID_HEADER) Long userId,
+                               WebRequest request) {
         log.info("GET /items/{} request", itemId);
-        ItemInfoDto itemDto = itemService.getById(itemId, userId);
-        log.info("GET /items/{} response: {}", itemId, itemDto);
-        return itemDto;
+        Optional<ItemInfoDto> itemDto = itemService.getById(itemId, userId, request::checkNotModified);
+        if (itemDto.isEmpty()) {
+            log.info("GET /items/{} response: not modified", itemId);
+            return null;
+        }
+        log.info("GET /items/{} response: {}", itemId, itemDto.get());
+        return itemDto.get();
     }
 
     @GetMapping
@@ -69,13 +92,26 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> search(@RequestParam(name = "text") String text) {
-        log.info("SEARCH /items/search/{} request", text);
-        Collection<ItemDto> itemsDto = itemService.search(text);
+    public Collection<ItemDto> search(@RequestParam(name = "text") String text,
+                                      @RequestParam(name = "from", defaultValue = "0") int from,
+                                      @RequestParam(name = "size", defaultValue = "20") int size) {
+        log.info("SEARCH /items/search/{} request, from={}, size={}", text, from, size);
+        Collection<ItemDto> itemsDto = itemService.search(text, from, size);
         log.info("SEARCH /items/search/{} response: {}", text, itemsDto.size());
         return itemsDto;
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                                        @RequestParam(name = "size", defaultValue = "20") int size) {
+        log.info("GET /items/{}/comments request, cursor={}, size={}", itemId, cursor, size);
+        KeysetPage<CommentDto> comments = itemService.getComments(itemId, KeysetCursor.decode(cursor), size);
+        log.info("GET /items/{}/comments response: {}, next={}", itemId,
+                comments.getContent().size(), comments.getNextCursor());
+        return comments.toResponseEntity();
+    }
+
     @PostMapping("/{itemId}/comment")
     @ResponseStatus(HttpStatus.CREATED)
     public CommentDto addComment(@RequestBody CommentCreateDto commentDto,
@@ -18,6 +18,10 @@ public class CommentMapper {
                 comment.getCreated());
     }
 
+    public CommentDto previewRowToDto(CommentPreviewRow row) {
+        return new CommentDto(row.getId(), row.getText(), row.getItemId(), row.getAuthorName(), row.getCreated());
+    }
+
     public Comment createdDtoToComment(CommentCreateDto dto, Item item, User author) {
         Comment comment = new Comment();
         comment.setText(dto.getText());
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Строка превью комментариев: сам комментарий, версия его автора (для ETag вещи) и общее число комментариев вещи
+@Data
+@AllArgsConstructor
+public class CommentPreviewRow {
+    private Long id;
+    private String text;
+    private Long itemId;
+    private String authorName;
+    private Long authorVersion;
+    private LocalDateTime created;
+    private Long total;
+}
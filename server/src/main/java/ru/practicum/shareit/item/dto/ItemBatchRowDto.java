@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemBatchRowDto {
+    private int index; // позиция строки во входном списке
+    private boolean created;
+    private ItemDto item;
+    private String error;
+
+    public static ItemBatchRowDto created(int index, ItemDto item) {
+        return new ItemBatchRowDto(index, true, item, null);
+    }
+
+    public static ItemBatchRowDto failed(int index, String error) {
+        return new ItemBatchRowDto(index, false, null, error);
+    }
+}
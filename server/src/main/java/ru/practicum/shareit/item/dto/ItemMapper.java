@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -20,19 +21,43 @@ public class ItemMapper {
         );
     }
 
+    public ItemDto indexedToDto(IndexedItem item) {
+        return new ItemDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.isAvailable(),
+                item.getRequestId()
+        );
+    }
+
+    public IndexedItem itemToIndexed(Item item) {
+        return new IndexedItem(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwner().getId(),
+                item.getRequest() != null ? item.getRequest().getId() : null
+        );
+    }
+
+    // только для новых вещей: id из запроса не переносится, его выдаёт items_seq
     public Item dtoToItem(ItemDto itemDto, User user, ItemRequest itemRequest) {
 
         return new Item(
-                itemDto.getId(),
+                null,
                 itemDto.getName(),
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 user,
-                itemRequest
+                itemRequest,
+                null
         );
     }
 
-    public ItemInfoDto itemToInfoDto(Item item, BookingDto last, BookingDto next, List<CommentDto> comments) {
+    public ItemInfoDto itemToInfoDto(Item item, BookingDto last, BookingDto next,
+                                     List<CommentDto> comments, long commentCount) {
         return new ItemInfoDto(
                 item.getId(),
                 item.getName(),
@@ -41,7 +66,8 @@ public class ItemMapper {
                 item.getRequest(),
                 last,
                 next,
-                comments
+                comments,
+                commentCount
         );
     }
 }
@@ -1,15 +1,37 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPreviewRow;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(long itemId);
+    // keyset по (created DESC, id DESC): курсор — последний выданный комментарий
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findPageByItem(long itemId, LocalDateTime cursorCreated, long cursorId, Pageable page);
 
-    List<Comment> findByItemIdIn(Set<Long> itemIds);
+    // Превью для карточек вещей: не больше limit свежих комментариев на вещь и общее их число — одним запросом
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentPreviewRow(" +
+            "e.id, e.text, e.itemId, e.authorName, e.authorVersion, e.created, e.total) " +
+            "FROM (SELECT c.id AS id, c.text AS text, c.item.id AS itemId, " +
+            "a.name AS authorName, a.version AS authorVersion, c.created AS created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item.id ORDER BY c.created DESC, c.id DESC) AS rowNumber, " +
+            "COUNT(*) OVER (PARTITION BY c.item.id) AS total " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id IN :itemIds) e " +
+            "WHERE e.rowNumber <= :limit " +
+            "ORDER BY e.itemId, e.created DESC, e.id DESC")
+    List<CommentPreviewRow> findNewestByItemIds(Collection<Long> itemIds, int limit);
 }
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -12,14 +14,24 @@ import java.util.List;
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(long ownerId);
 
+    // вещи, которые БД удалит каскадом вместе с пользователем: его собственные и ответы на его запросы
+    @Query("SELECT it.id FROM Item it LEFT JOIN it.request r WHERE it.owner.id = :userId OR r.requestor.id = :userId")
+    List<Long> findIdsDeletedWithUser(long userId);
+
     List<Item> findByRequestIn(List<ItemRequest> requestIds);
 
     @Query("SELECT it " +
             "FROM Item it " +
             "WHERE (LOWER(it.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
             "OR LOWER(it.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
-            "AND it.available = true")
-    List<Item> search(String text);
+            "AND it.available = true " +
+            "ORDER BY it.id")
+    List<Item> search(String text, Pageable page);
+
+    @Query("SELECT new ru.practicum.shareit.item.search.IndexedItem(" +
+            "it.id, it.name, it.description, it.available, it.owner.id, it.request.id) " +
+            "FROM Item it")
+    List<IndexedItem> findAllIndexed();
 
     List<Item> findByRequestId(long itemRequestId);
 }
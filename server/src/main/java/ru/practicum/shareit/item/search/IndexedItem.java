@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+// Снимок вещи в поисковом индексе: оригинальные поля для выдачи и нижний регистр для сопоставления
+@Getter
+public class IndexedItem {
+    private final long id;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final long ownerId;
+    private final Long requestId;
+    private final String normalizedName;
+    private final String normalizedDescription;
+
+    public IndexedItem(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = Boolean.TRUE.equals(available);
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+        this.normalizedName = normalize(name);
+        this.normalizedDescription = normalize(description);
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    boolean matches(String normalizedQuery) {
+        return normalizedName.contains(normalizedQuery) || normalizedDescription.contains(normalizedQuery);
+    }
+}
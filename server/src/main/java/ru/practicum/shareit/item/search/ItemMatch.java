@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemMatch {
+    private final long itemId;
+    private final double score;
+}
@@ -0,0 +1,278 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Триграммный инвертированный индекс по названию и описанию вещей.
+// Подстрочный поиск (как LIKE '%text%'): пересекаем списки вещей для всех триграмм запроса
+// и битмап доступных вещей, затем проверяем кандидатов точным contains
+@Component
+@Slf4j
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM = 3;
+    private static final int MIN_WORD = 4;
+    private static final double COMMON_WORD_SHARE = 0.1;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedItem> items = new HashMap<>();
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+    private final RoaringBitmap available = new RoaringBitmap();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // снимок читается под блокировкой записи: upsert, зафиксированный во время чтения,
+    // дождётся её и ляжет поверх снимка, а не будет затёрт им
+    public void rebuild() {
+        List<IndexedItem> all;
+        lock.writeLock().lock();
+        try {
+            all = itemRepository.findAllIndexed();
+            items.clear();
+            postings.clear();
+            available.clear();
+            all.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("SEARCH INDEX. Проиндексировано вещей: {}, триграмм: {}", all.size(), postings.size());
+    }
+
+    public List<IndexedItem> search(String text, int from, int size) {
+        String query = IndexedItem.normalize(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<IndexedItem> result = new ArrayList<>(Math.min(size, 64));
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (int id : candidates(query)) {
+                IndexedItem item = items.get(id);
+                if (!item.matches(query)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                result.add(item);
+                if (result.size() == size) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Доступные вещи, содержащие все триграммы запроса. Для коротких запросов — все доступные
+    public RoaringBitmap candidates(String normalizedQuery) {
+        lock.readLock().lock();
+        try {
+            if (normalizedQuery.length() < GRAM) {
+                return available.clone();
+            }
+            RoaringBitmap result = available.clone();
+            for (String gram : grams(normalizedQuery)) {
+                RoaringBitmap posting = postings.get(gram);
+                if (posting == null) {
+                    return new RoaringBitmap();
+                }
+                result.and(posting);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Подбор доступных вещей под свободный текст (описание запроса вещи).
+    // Слово текста засчитывается вещи, если она содержит не меньше двух третей его триграмм —
+    // так «дрели» находит «дрель». Вес слова — средний idf его триграмм; слишком частые слова
+    // (в среднем встречаются больше чем у COMMON_WORD_SHARE вещей) и слова короче MIN_WORD не учитываются
+    public List<ItemMatch> match(String text, long excludeOwnerId, int limit) {
+        lock.readLock().lock();
+        try {
+            int total = items.size();
+            if (total == 0 || limit <= 0) {
+                return List.of();
+            }
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String word : WORD_SEPARATOR.split(IndexedItem.normalize(text))) {
+                if (word.length() < MIN_WORD) {
+                    continue;
+                }
+                Set<String> wordGrams = grams(word);
+                // сначала только мощности списков: частое слово отсекается до обхода его списков
+                List<RoaringBitmap> wordPostings = new ArrayList<>(wordGrams.size());
+                double idfSum = 0;
+                long dfSum = 0;
+                for (String gram : wordGrams) {
+                    RoaringBitmap posting = postings.get(gram);
+                    int df = posting == null ? 0 : posting.getCardinality();
+                    dfSum += df;
+                    idfSum += Math.log(1 + (double) total / (1 + df));
+                    if (posting != null) {
+                        wordPostings.add(posting);
+                    }
+                }
+                if ((double) dfSum / wordGrams.size() > total * COMMON_WORD_SHARE) {
+                    continue;
+                }
+                Map<Integer, Integer> hits = new HashMap<>();
+                for (RoaringBitmap posting : wordPostings) {
+                    posting.forEach((int docId) -> hits.merge(docId, 1, Integer::sum));
+                }
+                int required = (wordGrams.size() * 2 + 2) / 3;
+                double weight = idfSum / wordGrams.size();
+                hits.forEach((docId, count) -> {
+                    if (count >= required) {
+                        scores.merge(docId, weight, Double::sum);
+                    }
+                });
+            }
+            return scores.entrySet().stream()
+                    .filter(entry -> available.contains(entry.getKey()))
+                    .filter(entry -> items.get(entry.getKey()).getOwnerId() != excludeOwnerId)
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Integer, Double>comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new ItemMatch(entry.getKey(), entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsertAfterCommit(IndexedItem item) {
+        afterCommit(() -> upsert(item));
+    }
+
+    public void upsertAllAfterCommit(Collection<IndexedItem> items) {
+        afterCommit(() -> upsertAll(items));
+    }
+
+    public void removeAllAfterCommit(Collection<Long> itemIds) {
+        afterCommit(() -> removeAll(itemIds));
+    }
+
+    public void upsert(IndexedItem item) {
+        upsertAll(List.of(item));
+    }
+
+    // пачка под одной блокировкой записи, а не по захвату на вещь
+    public void upsertAll(Collection<IndexedItem> batch) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedItem item : batch) {
+                IndexedItem previous = items.get(toDocId(item.getId()));
+                if (previous != null) {
+                    remove(previous);
+                }
+                add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (long itemId : itemIds) {
+                IndexedItem item = items.get(toDocId(itemId));
+                if (item != null) {
+                    remove(item);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(IndexedItem item) {
+        int docId = toDocId(item.getId());
+        items.put(docId, item);
+        for (String gram : grams(item)) {
+            postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(docId);
+        }
+        if (item.isAvailable()) {
+            available.add(docId);
+        }
+    }
+
+    private void remove(IndexedItem item) {
+        int docId = toDocId(item.getId());
+        items.remove(docId);
+        for (String gram : grams(item)) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(docId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        available.remove(docId);
+    }
+
+    private static Set<String> grams(IndexedItem item) {
+        Set<String> grams = grams(item.getNormalizedName());
+        grams.addAll(grams(item.getNormalizedDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static int toDocId(long itemId) {
+        return Math.toIntExact(itemId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
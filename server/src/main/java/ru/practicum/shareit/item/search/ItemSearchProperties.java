@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.search")
+public class ItemSearchProperties {
+    private SearchEngine engine = SearchEngine.INDEX;
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.search;
+
+public enum SearchEngine {
+    INDEX, // триграммный индекс в памяти
+    LIKE // запасной вариант: LIKE-запрос к таблице items
+}
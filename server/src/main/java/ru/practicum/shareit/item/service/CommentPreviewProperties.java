@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.items.comments")
+public class CommentPreviewProperties {
+    // сколько свежих комментариев отдаётся в карточке вещи; остальные — через GET /items/{id}/comments
+    private int previewSize = 10;
+}
@@ -2,21 +2,32 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public interface ItemService {
     ItemDto create(ItemDto itemDto, long ownerId);
 
+    ItemBatchResultDto createBatch(List<ItemDto> itemDtos, long ownerId);
+
     ItemDto update(ItemDto itemDto, long ownerId);
 
-    ItemInfoDto getById(long itemId, long userId);
+    // notModified получает ETag представления; пустой ответ — у клиента уже эта версия
+    Optional<ItemInfoDto> getById(long itemId, long userId, Predicate<String> notModified);
 
     Collection<ItemInfoDto> getByOwner(long ownerId);
 
-    Collection<ItemDto> search(String text);
+    Collection<ItemDto> search(String text, int from, int size);
+
+    KeysetPage<CommentDto> getComments(long itemId, KeysetCursor cursor, int size);
 
     CommentDto addComment(CommentCreateDto commentDto, Long authorId);
 }
@@ -6,15 +6,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.VersionStamp;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnauthorizedModification;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentPreviewRow;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBatchRowDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
@@ -22,19 +25,32 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexedItem;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.SearchEngine;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageSize;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,21 +59,24 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
-    private final BookingMapper bookingMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchProperties searchProperties;
+    private final CommentPreviewProperties commentPreviewProperties;
 
     @Transactional
     @Override
     public ItemDto create(ItemDto itemDto, long ownerId) {
-        User user = userRepository.findById(ownerId)
-                .orElseThrow(() -> {
-                    log.debug("CREATE ITEM. Пользователь с айди {} не найден", ownerId);
-                    return new NotFoundException("Пользователь с id=" + ownerId + " не существует");
-                });
+        if (!userIdIndex.exists(ownerId)) {
+            log.debug("CREATE ITEM. Пользователь с айди {} не найден", ownerId);
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
+        }
+        User user = userRepository.getReferenceById(ownerId);
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
             itemRequest = requestRepository.findById(itemDto.getRequestId())
@@ -66,8 +85,61 @@ public class ItemServiceImpl implements ItemService {
                         return new NotFoundException("Запрос с id=" + itemDto.getRequestId() + " не существует");
                     });
         }
-        Item item = itemMapper.dtoToItem(itemDto, user, itemRequest);
-        return itemMapper.itemToDTO(itemRepository.save(item));
+        Item item = itemRepository.save(itemMapper.dtoToItem(itemDto, user, itemRequest));
+        searchIndex.upsertAfterCommit(itemMapper.itemToIndexed(item));
+        return itemMapper.itemToDTO(item);
+    }
+
+    // Владелец и запросы выгружаются один раз на всю пачку, вставка идёт пакетами (items_seq + jdbc.batch_size).
+    // Строка с несуществующим запросом или без обязательных полей не прерывает пачку, а попадает в отчёт
+    @Transactional
+    @Override
+    public ItemBatchResultDto createBatch(List<ItemDto> itemDtos, long ownerId) {
+        if (!userIdIndex.exists(ownerId)) {
+            log.debug("CREATE ITEMS BATCH. Пользователь с айди {} не найден", ownerId);
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
+        }
+        User user = userRepository.getReferenceById(ownerId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        ItemBatchRowDto[] rows = new ItemBatchRowDto[itemDtos.size()];
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        List<Integer> positions = new ArrayList<>(itemDtos.size());
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            if (itemDto.getName() == null || itemDto.getDescription() == null || itemDto.getAvailable() == null) {
+                rows[i] = ItemBatchRowDto.failed(i, "Не заполнены обязательные поля вещи");
+                continue;
+            }
+            ItemRequest itemRequest = null;
+            if (itemDto.getRequestId() != null) {
+                itemRequest = requests.get(itemDto.getRequestId());
+                if (itemRequest == null) {
+                    rows[i] = ItemBatchRowDto.failed(i, "Запрос с id=" + itemDto.getRequestId() + " не существует");
+                    continue;
+                }
+            }
+            items.add(itemMapper.dtoToItem(itemDto, user, itemRequest));
+            positions.add(i);
+        }
+
+        List<Item> saved = itemRepository.saveAll(items);
+        List<IndexedItem> indexed = new ArrayList<>(saved.size());
+        for (int k = 0; k < saved.size(); k++) {
+            Item item = saved.get(k);
+            rows[positions.get(k)] = ItemBatchRowDto.created(positions.get(k), itemMapper.itemToDTO(item));
+            indexed.add(itemMapper.itemToIndexed(item));
+        }
+        searchIndex.upsertAllAfterCommit(indexed);
+
+        log.debug("CREATE ITEMS BATCH. Пользователь {}: создано {}, отклонено {}",
+                ownerId, saved.size(), itemDtos.size() - saved.size());
+        return new ItemBatchResultDto(saved.size(), itemDtos.size() - saved.size(), Arrays.asList(rows));
     }
 
     @Transactional
@@ -92,71 +164,101 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             updatedItem.setAvailable(itemDto.getAvailable());
         }
+        searchIndex.upsertAfterCommit(itemMapper.itemToIndexed(updatedItem));
 
         return itemMapper.itemToDTO(updatedItem);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public ItemInfoDto getById(long itemId, long userId) {
+    public Optional<ItemInfoDto> getById(long itemId, long userId, Predicate<String> notModified) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> {
                     log.debug("GET ITEM By ID={}. Вещь с айди {} не найден", itemId, itemId);
                     return new NotFoundException("Вещь с id=" + itemId + " не существует");
                 });
 
-        List<CommentDto> commentsDtos = commentRepository.findByItemId(itemId).stream()
-                .map(commentMapper::commentToDto)
-                .collect(Collectors.toList());
+        List<CommentPreviewRow> comments = commentRepository.findNewestByItemIds(
+                List.of(itemId), commentPreviewProperties.getPreviewSize());
 
-        List<Booking> bookings = null;
-        if (item.getOwner().getId() == userId) {
-            bookings = bookingRepository.findByItemIdAndStatus(itemId, BookingStatus.APPROVED);
+        // ETag считается по тем же строкам, из которых строится ответ.
+        // Владельцу его не отдаём — last/next бронирования зависят от текущего времени
+        boolean isOwner = item.getOwner().getId() == userId;
+        if (!isOwner && notModified.test(versionStamp(item, comments).toEtag("i", itemId))) {
+            return Optional.empty();
         }
 
-        if (bookings == null) {
-            return itemMapper.itemToInfoDto(item, null, null, commentsDtos);
-        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> lastAndNext = isOwner
+                ? bookingRepository.findLastAndNext(List.of(itemId), BookingStatus.APPROVED, now)
+                : Collections.emptyList();
+        return Optional.of(makeItemInfoDto(item, comments, lastAndNext, now));
+    }
 
-        return makeItemInfoDto(item, commentsDtos, bookings);
+    // в ответ попадают поля вещи, вложенный запрос с автором и превью комментариев с именами авторов;
+    // состав превью фиксируют общее число комментариев и id самого свежего из них
+    private static VersionStamp versionStamp(Item item, List<CommentPreviewRow> comments) {
+        long version = item.getVersion();
+        ItemRequest request = item.getRequest();
+        if (request != null) {
+            version += request.getVersion() + request.getRequestor().getVersion();
+        }
+        long lastCommentId = 0;
+        for (CommentPreviewRow comment : comments) {
+            version += comment.getAuthorVersion();
+            lastCommentId = Math.max(lastCommentId, comment.getId());
+        }
+        long commentCount = comments.isEmpty() ? 0 : comments.getFirst().getTotal();
+        return new VersionStamp(version, commentCount, lastCommentId);
     }
 
-    private ItemInfoDto makeItemInfoDto(Item item, List<CommentDto> commentsDtos, List<Booking> bookings) {
-        LocalDateTime nowTime = LocalDateTime.now();
-        Optional<Booking> lastOpt = bookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(nowTime))
-                .max(Comparator.comparing(Booking::getEnd));
-        Optional<Booking> nextOpt = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(nowTime))
-                .min(Comparator.comparing(Booking::getStart));
-        BookingDto last = lastOpt.map(bookingMapper::bookingToDto).orElse(null);
-        BookingDto next = nextOpt.map(bookingMapper::bookingToDto).orElse(null);
-
-        return itemMapper.itemToInfoDto(item, last, next, commentsDtos);
+    // lastAndNext уже отобраны в БД (findLastAndNext): не больше одного завершённого и одного будущего
+    // comments — превью из findNewestByItemIds, каждая строка несёт общее число комментариев вещи
+    private ItemInfoDto makeItemInfoDto(Item item, List<CommentPreviewRow> comments,
+                                        List<BookingDto> lastAndNext, LocalDateTime now) {
+        BookingDto last = null;
+        BookingDto next = null;
+        for (BookingDto booking : lastAndNext) {
+            if (booking.getEnd().isBefore(now)) {
+                last = booking;
+            } else {
+                next = booking;
+            }
+        }
+
+        List<CommentDto> commentsDtos = comments.stream()
+                .map(commentMapper::previewRowToDto)
+                .collect(Collectors.toList());
+        long commentCount = comments.isEmpty() ? 0 : comments.getFirst().getTotal();
+
+        return itemMapper.itemToInfoDto(item, last, next, commentsDtos, commentCount);
     }
 
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemInfoDto> getByOwner(long ownerId) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> {
-                    log.debug("GET ITEMS BY OWNER. Пользователь с айди {} не найден", ownerId);
-                    return new NotFoundException("Пользователь с id=" + ownerId + " не существует");
-                });
+        if (!userIdIndex.exists(ownerId)) {
+            log.debug("GET ITEMS BY OWNER. Пользователь с айди {} не найден", ownerId);
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
+        }
 
         // выгружаем вещи (один запрос)
         Map<Long, Item> items = itemRepository.findByOwnerId(ownerId)
                 .stream()
                 .collect(Collectors.toMap(Item::getId, Function.identity()));
 
-        // выгружаем комментарии (ещё один запрос)
-        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(items.keySet()).stream()
-                .map(commentMapper::commentToDto)
-                .collect(Collectors.groupingBy(CommentDto::getItemId));
-        // выгружаем бронирования (ещё один запрос)
-        Map<Long, List<Booking>> bookings = bookingRepository.findByItemIdInAndStatus(items.keySet(), BookingStatus.APPROVED)
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        // выгружаем превью комментариев с их числом (ещё один запрос), полные ленты не поднимаем
+        Map<Long, List<CommentPreviewRow>> comments = items.isEmpty()
+                ? Collections.emptyMap()
+                : commentRepository.findNewestByItemIds(items.keySet(), commentPreviewProperties.getPreviewSize())
+                        .stream()
+                        .collect(Collectors.groupingBy(CommentPreviewRow::getItemId));
+        // выгружаем только last/next по каждой вещи (ещё один запрос)
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<BookingDto>> bookings = items.isEmpty()
+                ? Collections.emptyMap()
+                : bookingRepository.findLastAndNext(items.keySet(), BookingStatus.APPROVED, now).stream()
+                        .collect(Collectors.groupingBy(BookingDto::getItemId));
 
         // готовим окончательный результат из полученных данных (нет обращений к БД)
         return items.values()
@@ -164,16 +266,34 @@ public class ItemServiceImpl implements ItemService {
                 .map(item -> makeItemInfoDto(
                         item,
                         comments.getOrDefault(item.getId(), Collections.emptyList()),
-                        bookings.getOrDefault(item.getId(), Collections.emptyList())
+                        bookings.getOrDefault(item.getId(), Collections.emptyList()),
+                        now
                 ))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<ItemDto> search(String text) {
-        return itemRepository.search(text.toLowerCase()).stream()
-                .map(itemMapper::itemToDTO).collect(Collectors.toList());
+    public Collection<ItemDto> search(String text, int from, int size) {
+        OffsetPageRequest page = new OffsetPageRequest(from, PageSize.checked(size));
+        if (searchProperties.getEngine() == SearchEngine.LIKE) {
+            return itemRepository.search(text.toLowerCase(), page).stream()
+                    .map(itemMapper::itemToDTO).collect(Collectors.toList());
+        }
+        return searchIndex.search(text, (int) page.getOffset(), page.getPageSize()).stream()
+                .map(itemMapper::indexedToDto).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<CommentDto> getComments(long itemId, KeysetCursor cursor, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            log.debug("GET COMMENTS BY ITEM ID={}. Вещь с айди {} не найдена", itemId, itemId);
+            throw new NotFoundException("Вещь с id=" + itemId + " не существует");
+        }
+        List<CommentDto> rows = commentRepository.findPageByItem(
+                itemId, cursor.getTimestamp(), cursor.getId(), KeysetPage.request(size));
+        return KeysetPage.of(rows, size, comment -> new KeysetCursor(comment.getCreated(), comment.getId()));
     }
 
     @Transactional
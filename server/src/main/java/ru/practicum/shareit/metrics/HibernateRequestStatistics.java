@@ -0,0 +1,57 @@
+package ru.practicum.shareit.metrics;
+
+// Счётчики Hibernate в пределах одного HTTP-запроса (поток обработчика).
+// Заполняются HibernateStatisticsIntegrator и StatementCounter, сбрасываются и публикуются HibernateStatisticsFilter
+final class HibernateRequestStatistics {
+    private static final ThreadLocal<HibernateRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+    private long collectionFetches;
+
+    private HibernateRequestStatistics() {
+    }
+
+    static HibernateRequestStatistics begin() {
+        HibernateRequestStatistics statistics = new HibernateRequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        HibernateRequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        HibernateRequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        HibernateRequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    long getStatements() {
+        return statements;
+    }
+
+    long getEntityLoads() {
+        return entityLoads;
+    }
+
+    long getCollectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Распределения shareit.request.hibernate.* по шаблону пути: сколько SQL, загрузок сущностей
+// и догрузок коллекций обходится один запрос к эндпоинту
+@Component
+@RequiredArgsConstructor
+public class HibernateStatisticsFilter extends OncePerRequestFilter {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics statistics = HibernateRequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            record("shareit.request.hibernate.statements", uri, request, statistics.getStatements());
+            record("shareit.request.hibernate.entity.loads", uri, request, statistics.getEntityLoads());
+            record("shareit.request.hibernate.collection.fetches", uri, request, statistics.getCollectionFetches());
+        }
+    }
+
+    private void record(String name, String uri, HttpServletRequest request, long value) {
+        DistributionSummary.builder(name)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(value);
+    }
+}
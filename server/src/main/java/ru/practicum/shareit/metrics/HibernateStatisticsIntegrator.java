@@ -0,0 +1,27 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+// Дописывает к штатным слушателям счётчики загруженных сущностей и инициализированных коллекций
+class HibernateStatisticsIntegrator implements Integrator {
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD,
+                (PostLoadEventListener) event -> HibernateRequestStatistics.entityLoaded());
+        listeners.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) event -> HibernateRequestStatistics.collectionFetched());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+
+// Таймер shareit.service на каждый метод сервисов: service, method, state (фильтр BookingState, если есть) и exception
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceTimingAspect {
+    static final String SERVICE_TIMER = "shareit.service";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..)) || " +
+            "execution(public * ru.practicum.shareit.item.service.ItemService+.*(..)) || " +
+            "execution(public * ru.practicum.shareit.request.service.ItemRequestService+.*(..)) || " +
+            "execution(public * ru.practicum.shareit.user.service.UserService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_TIMER)
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("state", bookingState(joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String bookingState(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState state) {
+                return state.name();
+            }
+        }
+        return NONE;
+    }
+}
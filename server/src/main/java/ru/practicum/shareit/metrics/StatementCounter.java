@@ -0,0 +1,12 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Каждый подготовленный Hibernate SQL-оператор; текст не меняется
+class StatementCounter implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        HibernateRequestStatistics.statementPrepared();
+        return sql;
+    }
+}
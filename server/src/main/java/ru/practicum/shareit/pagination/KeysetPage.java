@@ -0,0 +1,47 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.constants.PaginationHttpHeader.NEXT_CURSOR_HEADER;
+
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    @Nullable
+    private String nextCursor;
+
+    // запрашиваем на одну запись больше страницы, чтобы без count-запроса понять, есть ли продолжение;
+    // size == null — весь список одним ответом, как было до пагинации
+    public static Pageable request(@Nullable Integer size) {
+        return size == null ? Pageable.unpaged() : PageRequest.of(0, PageSize.checked(size) + 1);
+    }
+
+    public static <T> KeysetPage<T> of(List<T> rows, @Nullable Integer size, Function<T, KeysetCursor> keyExtractor) {
+        if (size == null || rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, keyExtractor.apply(content.getLast()).encode());
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(content);
+    }
+}
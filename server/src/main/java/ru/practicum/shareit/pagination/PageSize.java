@@ -0,0 +1,27 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.lang.Nullable;
+
+// Размер страницы от клиента: те же границы, что у шлюза (@Positive @Max(100)),
+// чтобы сервер не отдавал неограниченные страницы в обход шлюза
+public final class PageSize {
+    public static final int MAX = 100;
+    // размер страницы, если клиент пришёл с курсором, но без size
+    public static final int DEFAULT = 20;
+
+    private PageSize() {
+    }
+
+    public static int checked(int size) {
+        if (size <= 0 || size > MAX) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX + ": " + size);
+        }
+        return size;
+    }
+
+    // без size и cursor — список целиком (прежнее поведение); с курсором — страница по умолчанию
+    @Nullable
+    public static Integer orDefault(@Nullable Integer size, @Nullable String cursor) {
+        return size == null && cursor != null ? Integer.valueOf(DEFAULT) : size;
+    }
+}
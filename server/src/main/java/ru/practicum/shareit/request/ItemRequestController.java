@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,12 +14,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
 
@@ -40,27 +45,38 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestWithResponsesDto> getAllByUser(@RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("GET /requests request: userId={}", userId);
-        List<ItemRequestWithResponsesDto> requests = requestService.getAllByUser(userId);
-        log.info("GET /requests response: userId={}, size={}", userId, requests.size());
-        return requests;
+    public ResponseEntity<List<ItemRequestWithResponsesDto>> getAllByUser(@RequestParam(name = "cursor", required = false) String cursor,
+                                                                          @RequestParam(name = "size", defaultValue = "20") int size,
+                                                                          @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("GET /requests request: userId={}, cursor={}, size={}", userId, cursor, size);
+        KeysetPage<ItemRequestWithResponsesDto> requests = requestService.getAllByUser(userId, KeysetCursor.decode(cursor), size);
+        log.info("GET /requests response: userId={}, size={}, next={}", userId,
+                requests.getContent().size(), requests.getNextCursor());
+        return requests.toResponseEntity();
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAll(@RequestParam(name = "from") int from,
-                                       @RequestParam(name = "size") int size) {
-        log.info("GET /requests/all?from={}&size={} request:", from, size);
-        List<ItemRequestDto> requests = requestService.getAll(from, size);
-        log.info("GET /requests/all?from={}&size={} response: size={}", from, size, requests.size());
-        return requests;
+    public ResponseEntity<List<ItemRequestDto>> getAll(@RequestParam(name = "from", required = false) Integer from,
+                                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestParam(name = "size", defaultValue = "20") int size) {
+        log.info("GET /requests/all request: from={}, cursor={}, size={}", from, cursor, size);
+        // from оставлен для старых клиентов, курсор имеет приоритет
+        KeysetPage<ItemRequestDto> requests = from != null && cursor == null
+                ? requestService.getAll(from, size)
+                : requestService.getAll(KeysetCursor.decode(cursor), size);
+        log.info("GET /requests/all response: size={}, next={}", requests.getContent().size(), requests.getNextCursor());
+        return requests.toResponseEntity();
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestWithResponsesDto getById(@PathVariable long requestId) {
+    public ItemRequestWithResponsesDto getById(@PathVariable long requestId, WebRequest request) {
         log.info("GET /requests/{} request", requestId);
-        ItemRequestWithResponsesDto itemRequest = requestService.getById(requestId);
-        log.info("GET /requests/{} response: {}", requestId, itemRequest);
-        return itemRequest;
+        Optional<ItemRequestWithResponsesDto> itemRequest = requestService.getById(requestId, request::checkNotModified);
+        if (itemRequest.isEmpty()) {
+            log.info("GET /requests/{} response: not modified", requestId);
+            return null;
+        }
+        log.info("GET /requests/{} response: {}", requestId, itemRequest.get());
+        return itemRequest.get();
     }
 }
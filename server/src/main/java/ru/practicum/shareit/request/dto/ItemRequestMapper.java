@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.dto;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,10 @@ public class ItemRequestMapper {
         return itemRequest;
     }
 
+    public RequestSuggestion matchToSuggestion(ItemRequest itemRequest, Item item, int place, double score) {
+        return new RequestSuggestion(null, itemRequest, item, place, score);
+    }
+
     public ItemRequestDto requestToDto(ItemRequest itemRequest) {
         return new ItemRequestDto(
                 itemRequest.getId(),
@@ -29,7 +34,8 @@ public class ItemRequestMapper {
     }
 
     public ItemRequestWithResponsesDto requestToDtoWithResponses(ItemRequest itemRequest,
-                                                                 List<Item> items) {
+                                                                 List<Item> items,
+                                                                 List<ItemSuggestionDto> suggestions) {
         List<ItemRequestResponse> responses = items.stream()
                 .map(item -> new ItemRequestResponse(item.getId(), item.getName(), item.getOwner().getId()))
                 .collect(Collectors.toList());
@@ -38,7 +44,8 @@ public class ItemRequestMapper {
                 itemRequest.getDescription(),
                 itemRequest.getRequestor().getId(),
                 itemRequest.getCreated(),
-                responses
+                responses,
+                suggestions
         );
     }
 }
@@ -14,4 +14,5 @@ public class ItemRequestWithResponsesDto {
     private Long requestorId;
     private LocalDateTime created;
     private List<ItemRequestResponse> items;
+    private List<ItemSuggestionDto> suggestions;
 }
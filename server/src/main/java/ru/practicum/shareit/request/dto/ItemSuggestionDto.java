@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Вещь, подобранная под запрос при его создании; поля как у ItemRequestResponse плюс оценка совпадения.
+// Версия вещи в ответ не попадает — по ней считается ETag запроса
+@Data
+@AllArgsConstructor
+public class ItemSuggestionDto {
+    @JsonIgnore
+    private long requestId;
+    private long itemId;
+    private String name;
+    private long userId;
+    private double score;
+    @JsonIgnore
+    private long itemVersion;
+}
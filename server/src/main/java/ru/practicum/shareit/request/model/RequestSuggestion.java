@@ -0,0 +1,40 @@
+package ru.practicum.shareit.request.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.item.model.Item;
+
+@Entity
+@Table(name = "request_suggestions")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RequestSuggestion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_suggestions_seq")
+    @SequenceGenerator(name = "request_suggestions_seq", sequenceName = "request_suggestions_seq", allocationSize = 50)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+    @Column(name = "place")
+    private Integer place;
+    @Column(name = "score")
+    private Double score;
+}
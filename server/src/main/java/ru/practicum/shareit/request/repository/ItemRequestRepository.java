@@ -2,14 +2,29 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long requestorId);
+    // keyset по (created DESC, id DESC): курсор — последний выданный запрос
+    String KEYSET_PAGE = "(r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+            "ORDER BY r.created DESC, r.id DESC";
 
-    List<ItemRequest> findAllByOrderByCreatedDesc(Pageable page);
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor u " +
+            "WHERE u.id = :requestorId AND " + KEYSET_PAGE)
+    List<ItemRequest> findPageByRequestor(long requestorId, LocalDateTime cursorCreated, long cursorId, Pageable page);
+
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor " +
+            "WHERE " + KEYSET_PAGE)
+    List<ItemRequest> findPage(LocalDateTime cursorCreated, long cursorId, Pageable page);
+
+    // прежняя выдача по смещению (параметр from), в том же порядке, что и keyset
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findPageByOffset(Pageable page);
 }
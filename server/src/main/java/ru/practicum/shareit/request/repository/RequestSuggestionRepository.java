@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Long> {
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemSuggestionDto(" +
+            "s.request.id, i.id, i.name, i.owner.id, s.score, i.version) " +
+            "FROM RequestSuggestion s JOIN s.item i " +
+            "WHERE s.request.id IN :requestIds " +
+            "ORDER BY s.request.id, s.place")
+    List<ItemSuggestionDto> findByRequestIds(Collection<Long> requestIds);
+}
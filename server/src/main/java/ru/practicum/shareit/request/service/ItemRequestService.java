@@ -1,17 +1,23 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public interface ItemRequestService {
     ItemRequestDto create(ItemRequestCreateDto requestDto, long userId);
 
-    List<ItemRequestWithResponsesDto> getAllByUser(Long userId);
+    KeysetPage<ItemRequestWithResponsesDto> getAllByUser(Long userId, KeysetCursor cursor, int size);
 
-    List<ItemRequestDto> getAll(int from, int size);
+    KeysetPage<ItemRequestDto> getAll(KeysetCursor cursor, int size);
 
-    ItemRequestWithResponsesDto getById(long requestId);
+    KeysetPage<ItemRequestDto> getAll(int from, int size);
+
+    // notModified получает ETag представления; пустой ответ — у клиента уже эта версия
+    Optional<ItemRequestWithResponsesDto> getById(long requestId, Predicate<String> notModified);
 }
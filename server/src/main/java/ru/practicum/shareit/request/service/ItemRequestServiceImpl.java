@@ -2,25 +2,37 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.etag.VersionStamp;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemMatch;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageSize;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.request.dto.ItemSuggestionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,69 +41,121 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final ItemRepository itemRepository;
     private final ItemRequestMapper requestMapper;
+    private final RequestSuggestionRepository suggestionRepository;
+    private final ItemSearchIndex searchIndex;
+    private final RequestSuggestionProperties suggestionProperties;
 
     @Override
     @Transactional
     public ItemRequestDto create(ItemRequestCreateDto requestDto, long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.debug("CREATE ITEMREQUEST. Пользователь с айди {} не найден", userId);
-                    return new NotFoundException("Пользователь с id=" + userId + " не существует");
-                });
-        ItemRequest itemRequest = requestMapper.dtoToItemRequest(requestDto, user);
+        if (!userIdIndex.exists(userId)) {
+            log.debug("CREATE ITEMREQUEST. Пользователь с айди {} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
+        User user = userRepository.getReferenceById(userId);
+        ItemRequest itemRequest = requestRepository.save(requestMapper.dtoToItemRequest(requestDto, user));
 
-        return requestMapper.requestToDto(requestRepository.save(itemRequest));
+        // подбор идёт по индексу в памяти, а результат сохраняется: GET /requests/{id} ничего не ищет
+        List<ItemMatch> matches = searchIndex.match(itemRequest.getDescription(), userId, suggestionProperties.getLimit());
+        List<RequestSuggestion> suggestions = new ArrayList<>(matches.size());
+        for (int place = 0; place < matches.size(); place++) {
+            ItemMatch match = matches.get(place);
+            suggestions.add(requestMapper.matchToSuggestion(
+                    itemRequest, itemRepository.getReferenceById(match.getItemId()), place, match.getScore()));
+        }
+        suggestionRepository.saveAll(suggestions);
+        log.debug("CREATE ITEMREQUEST. Запрос {}: подобрано вещей {}", itemRequest.getId(), suggestions.size());
+
+        return requestMapper.requestToDto(itemRequest);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestWithResponsesDto> getAllByUser(Long userId) {
+    public KeysetPage<ItemRequestWithResponsesDto> getAllByUser(Long userId, KeysetCursor cursor, int size) {
         // Для каждого запроса должны быть указаны описание, дата и время создания,
         // а также список ответов в формате: id вещи, название, id владельца.
         // В дальнейшем, используя указанные id вещей, можно будет получить подробную
         // информацию о каждой из них. Запросы должны возвращаться отсортированными от более новых к более старым.
-        userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.debug("GET ITEMREQUEST BY USER. Пользователь с айди {} не найден", userId);
-                    return new NotFoundException("Пользователь с id=" + userId + " не существует");
-                });
+        if (!userIdIndex.exists(userId)) {
+            log.debug("GET ITEMREQUEST BY USER. Пользователь с айди {} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
 
-        List<ItemRequest> requests = requestRepository.findAllByRequestorIdOrderByCreatedDesc(userId);
+        KeysetPage<ItemRequest> page = KeysetPage.of(
+                requestRepository.findPageByRequestor(userId, cursor.getTimestamp(), cursor.getId(), KeysetPage.request(size)),
+                size,
+                ItemRequestServiceImpl::cursorOf);
+        List<ItemRequest> requests = page.getContent();
         Map<Long, List<Item>> items = itemRepository.findByRequestIn(requests).stream()
                 .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        Map<Long, List<ItemSuggestionDto>> suggestions = requests.isEmpty()
+                ? Collections.emptyMap()
+                : suggestionRepository.findByRequestIds(requests.stream().map(ItemRequest::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(ItemSuggestionDto::getRequestId));
 
-        return requests.stream()
-                .map(request -> requestMapper.requestToDtoWithResponses(
-                        request,
-                        items.getOrDefault(request.getId(), new ArrayList<>())))
-                .collect(Collectors.toList());
+        return page.map(request -> requestMapper.requestToDtoWithResponses(
+                request,
+                items.getOrDefault(request.getId(), new ArrayList<>()),
+                suggestions.getOrDefault(request.getId(), new ArrayList<>())));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestDto> getAll(int from, int size) {
+    public KeysetPage<ItemRequestDto> getAll(KeysetCursor cursor, int size) {
+        List<ItemRequest> rows = requestRepository.findPage(
+                cursor.getTimestamp(), cursor.getId(), KeysetPage.request(size));
+        return KeysetPage.of(rows, size, ItemRequestServiceImpl::cursorOf).map(requestMapper::requestToDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ItemRequestDto> getAll(int from, int size) {
         // С помощью этого эндпоинта пользователи смогут просматривать существующие запросы,
         // на которые они могли бы ответить. Запросы сортируются по дате создания от более новых к более старым.
         // Результаты должны возвращаться постранично.
         // Для этого нужно передать два параметра: from — индекс первого элемента,
         // начиная с 0; и size — количество элементов для отображения.
-        Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
-        return requestRepository.findAllByOrderByCreatedDesc(page).stream()
-                .map(requestMapper::requestToDto)
-                .collect(Collectors.toList());
+        // Смещение берётся как есть (OffsetPageRequest), курсор в ответе позволяет продолжить уже через keyset
+        List<ItemRequest> rows = requestRepository.findPageByOffset(new OffsetPageRequest(from, PageSize.checked(size) + 1));
+        return KeysetPage.of(rows, size, ItemRequestServiceImpl::cursorOf).map(requestMapper::requestToDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemRequestWithResponsesDto getById(long requestId) {
+    public Optional<ItemRequestWithResponsesDto> getById(long requestId, Predicate<String> notModified) {
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> {
                     log.debug("GET BY ID ITEMREQUEST. Запрос с айди {} не найден", requestId);
                     return new NotFoundException("Запрос с id=" + requestId + " не существует");
                 });
         List<Item> items = itemRepository.findByRequestId(requestId);
-        return requestMapper.requestToDtoWithResponses(itemRequest, items);
+        List<ItemSuggestionDto> suggestions = suggestionRepository.findByRequestIds(List.of(requestId));
+        // ETag считается по тем же строкам, из которых строится ответ
+        if (notModified.test(versionStamp(itemRequest, items, suggestions).toEtag("r", requestId))) {
+            return Optional.empty();
+        }
+        return Optional.of(requestMapper.requestToDtoWithResponses(itemRequest, items, suggestions));
+    }
+
+    // в ответ попадают поля запроса, ответившие вещи и подобранные вещи; состав ответов фиксируют их число и max id
+    private static VersionStamp versionStamp(ItemRequest itemRequest, List<Item> items,
+                                             List<ItemSuggestionDto> suggestions) {
+        long version = itemRequest.getVersion();
+        long lastItemId = 0;
+        for (Item item : items) {
+            version += item.getVersion();
+            lastItemId = Math.max(lastItemId, item.getId());
+        }
+        for (ItemSuggestionDto suggestion : suggestions) {
+            version += suggestion.getItemVersion();
+        }
+        return new VersionStamp(version, items.size(), lastItemId);
+    }
+
+    private static KeysetCursor cursorOf(ItemRequest request) {
+        return new KeysetCursor(request.getCreated(), request.getId());
     }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.requests.suggestions")
+public class RequestSuggestionProperties {
+    // сколько лучших совпадений сохраняется для нового запроса; 0 — подбор выключен
+    private int limit = 10;
+}
@@ -12,10 +12,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Collection;
+import java.util.Optional;
 
 
 @RestController
@@ -51,11 +53,15 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getById(@PathVariable long userId) {
+    public UserDto getById(@PathVariable long userId, WebRequest request) {
         log.info("GET /users/{} request", userId);
-        UserDto user = userService.getById(userId);
-        log.info("GET /users/{} response: {}", userId, user);
-        return user;
+        Optional<UserDto> user = userService.getById(userId, request::checkNotModified);
+        if (user.isEmpty()) {
+            log.info("GET /users/{} response: not modified", userId);
+            return null;
+        }
+        log.info("GET /users/{} response: {}", userId, user.get());
+        return user.get();
     }
 
     @GetMapping
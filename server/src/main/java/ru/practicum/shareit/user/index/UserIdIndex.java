@@ -0,0 +1,116 @@
+package ru.practicum.shareit.user.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Сжатый битмап id живых пользователей: проверка "пользователь существует" без обращения к БД.
+// Заполняется при старте, поддерживается после коммита в UserServiceImpl.create/delete.
+// Промах перепроверяется через existsById (пользователь мог быть создан в обход сервиса)
+@Component
+@Slf4j
+public class UserIdIndex implements SmartInitializingSingleton {
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Roaring64NavigableMap ids = new Roaring64NavigableMap();
+    // счётчик удалений и перестроек: exists кэширует ответ БД, только если между промахом и записью их не было
+    private long removals;
+
+    public UserIdIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        List<Long> all = userRepository.findAllIds();
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            removals++;
+            all.forEach(ids::addLong);
+            ids.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("USER INDEX. Загружено пользователей: {}", all.size());
+    }
+
+    // existsById идёт вне блокировки, и пользователя могут удалить между ним и записью в битмап —
+    // тогда id не кэшируется, иначе удалённый пользователь остался бы "живым" навсегда
+    public boolean exists(long userId) {
+        long seenRemovals;
+        lock.readLock().lock();
+        try {
+            if (ids.contains(userId)) {
+                return true;
+            }
+            seenRemovals = removals;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (removals == seenRemovals) {
+                ids.addLong(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    public void addAfterCommit(long userId) {
+        afterCommit(() -> add(userId));
+    }
+
+    public void removeAfterCommit(long userId) {
+        afterCommit(() -> remove(userId));
+    }
+
+    private void add(long userId) {
+        lock.writeLock().lock();
+        try {
+            ids.addLong(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            ids.removeLong(userId);
+            removals++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -3,6 +3,8 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 public interface UserService {
     UserDto create(UserDto user);
@@ -11,7 +13,8 @@ public interface UserService {
 
     void delete(long userId);
 
-    UserDto getById(long userId);
+    // notModified получает ETag представления; пустой ответ — у клиента уже эта версия
+    Optional<UserDto> getById(long userId, Predicate<String> notModified);
 
     Collection<UserDto> getAll();
 }
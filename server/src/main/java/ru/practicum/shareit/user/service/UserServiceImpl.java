@@ -4,13 +4,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.conflict.BookingConflictEngine;
+import ru.practicum.shareit.cache.SecondLevelCache;
+import ru.practicum.shareit.etag.VersionStamp;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,13 +29,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final UserMapper mapper;
+    private final ItemSearchIndex searchIndex;
+    private final SecondLevelCache secondLevelCache;
+    private final ItemRepository itemRepository;
+    private final BookingConflictEngine conflictEngine;
 
     @Transactional
     @Override
     public UserDto create(UserDto userDto) {
-        User user = mapper.dtoToUser(userDto);
-        return mapper.userToDto(userRepository.save(user));
+        User user = userRepository.save(mapper.dtoToUser(userDto));
+        userIdIndex.addAfterCommit(user.getId());
+        return mapper.userToDto(user);
     }
 
     @Transactional
@@ -48,19 +65,29 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public void delete(long userId) {
+        List<Long> deletedItemIds = itemRepository.findIdsDeletedWithUser(userId);
+        conflictEngine.forgetUserAfterCommit(userId, deletedItemIds);
         userRepository.deleteById(userId);
+        userIdIndex.removeAfterCommit(userId);
+        // вещи пользователя (и ответы на его запросы) удаляются каскадом в БД — мимо Hibernate,
+        // поэтому из индекса поиска убираются именно эти вещи, а регионы вещей и запросов сбрасываются
+        searchIndex.removeAllAfterCommit(deletedItemIds);
+        secondLevelCache.evictAfterCommit(Item.class, ItemRequest.class);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public UserDto getById(long userId) {
+    public Optional<UserDto> getById(long userId, Predicate<String> notModified) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     log.debug("GET USER By ID={}. Пользователь с айди {} не найден", userId, userId);
                     return new NotFoundException("Пользователь с id=" + userId + " не существует");
                 });
 
-        return mapper.userToDto(user);
+        if (notModified.test(new VersionStamp(user.getVersion(), 0, 0).toEtag("u", userId))) {
+            return Optional.empty();
+        }
+        return Optional.of(mapper.userToDto(user));
     }
 
     @Transactional(readOnly = true)
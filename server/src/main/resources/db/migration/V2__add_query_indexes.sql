@@ -0,0 +1,19 @@
+-- листинги бронирований букера: keyset по (start_time DESC, id DESC)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_time DESC, id DESC);
+
+-- бронирования вещи по статусу: last/next для владельца, индекс пересечений
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_time);
+
+-- листинги владельца идут через items.owner_id, затем бронирования его вещей
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_time DESC, id DESC);
+
+-- проверка права оставить комментарий
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_end ON bookings (item_id, booker_id, end_time);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created);
@@ -0,0 +1,2 @@
+-- next для владельца: первое одобренное бронирование вещи после now
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_time, id);
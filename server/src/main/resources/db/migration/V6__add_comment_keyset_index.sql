@@ -0,0 +1,3 @@
+-- превью и постраничная выдача комментариев вещи: keyset по (created DESC, id DESC)
+DROP INDEX IF EXISTS ix_comments_item_created;
+CREATE INDEX IF NOT EXISTS ix_comments_item_created_id ON comments (item_id, created DESC, id DESC);
@@ -0,0 +1,15 @@
+-- подобранные при создании запроса вещи (ItemSearchIndex.match), place — место в выдаче
+CREATE SEQUENCE IF NOT EXISTS request_suggestions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+    id BIGINT NOT NULL PRIMARY KEY,
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    place INTEGER NOT NULL,
+    score DOUBLE PRECISION NOT NULL,
+    FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE,
+    FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_request_suggestions_item ON request_suggestions (item_id);
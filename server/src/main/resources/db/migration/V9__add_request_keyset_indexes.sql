@@ -0,0 +1,5 @@
+-- листинги запросов: keyset по (created DESC, id DESC) — все запросы и запросы автора
+CREATE INDEX IF NOT EXISTS ix_requests_created_id ON requests (created DESC, id DESC);
+
+DROP INDEX IF EXISTS ix_requests_requestor_created;
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created_id ON requests (requestor_id, created DESC, id DESC);
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Пачка решений в обход шлюза: неполное тело — 400, а не NullPointerException и 500
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingDecisionBatchValidationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"approved\":true}",
+            "{\"bookingIds\":[],\"approved\":true}",
+            "{\"bookingIds\":[1,null],\"approved\":true}",
+            "{\"bookingIds\":[1]}"
+    })
+    void incompleteBatchIsBadRequest(String body) throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+}
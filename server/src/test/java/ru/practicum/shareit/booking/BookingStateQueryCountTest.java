@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.querycount.QueryCount;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Список бронирований по любому state — один SQL-запрос (пользователь к этому моменту уже в UserIdIndex),
+// и в нём ровно те бронирования, что подходят под state
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingStateQueryCountTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Map<BookingState, Set<Long>> expected;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = user();
+        booker = user();
+        Item item = itemRepository.save(new Item(null, "дрель", "ударная дрель", true, owner, null, null));
+        LocalDateTime now = LocalDateTime.now();
+        long past = booking(item, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        long current = booking(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        long waiting = booking(item, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+        long rejected = booking(item, now.plusDays(4), now.plusDays(5), BookingStatus.REJECTED);
+        expected = Map.of(
+                BookingState.ALL, Set.of(past, current, waiting, rejected),
+                BookingState.PAST, Set.of(past),
+                BookingState.CURRENT, Set.of(current),
+                BookingState.FUTURE, Set.of(waiting, rejected),
+                BookingState.WAITING, Set.of(waiting),
+                BookingState.REJECTED, Set.of(rejected));
+
+        // первый запрос кладёт пользователей в UserIdIndex, дальше проверка пользователя обходится без SQL
+        mockMvc.perform(get("/bookings").header(USER_ID_HEADER, booker.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/owner").header(USER_ID_HEADER, owner.getId())).andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookerStateIsOneQuery(BookingState state) throws Exception {
+        assertOneQuery("/bookings", booker, state);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void ownerStateIsOneQuery(BookingState state) throws Exception {
+        assertOneQuery("/bookings/owner", owner, state);
+    }
+
+    private void assertOneQuery(String path, User user, BookingState state) throws Exception {
+        QueryCount.reset();
+        MvcResult result = mockMvc.perform(get(path)
+                        .param("state", state.name())
+                        .header(USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(1, QueryCount.current(), "SQL-запросов для state=" + state);
+
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode booking : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            ids.add(booking.get("id").asLong());
+        }
+        assertEquals(expected.get(state), ids);
+    }
+
+    private User user() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return userRepository.save(user);
+    }
+
+    private long booking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status)).getId();
+    }
+}
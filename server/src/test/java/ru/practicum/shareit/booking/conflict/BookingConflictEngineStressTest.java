@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking.conflict;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Движок конфликтов без Spring: таймлайны поднимаются пустыми, транзакций нет — резерв сразу занимает интервал
+class BookingConflictEngineStressTest {
+    private static final int ITEMS = 4;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 2_000;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusYears(1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private BookingConflictEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.destroy();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void concurrentReservationsNeverOverlap() throws Exception {
+        when(bookingRepository.findActiveIntervals(anyLong(), anyCollection(), any())).thenReturn(List.of());
+        engine = new BookingConflictEngine(bookingRepository, 8, Duration.ofMinutes(30));
+        Map<Long, ConcurrentLinkedQueue<BookingInterval>> accepted = new ConcurrentHashMap<>();
+        AtomicLong bookingIds = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    long itemId = random.nextLong(ITEMS);
+                    LocalDateTime from = BASE.plusHours(random.nextInt(2_000));
+                    LocalDateTime to = from.plusHours(1 + random.nextInt(48));
+                    try {
+                        BookingInterval reservation = engine.reserve(itemId, from, to);
+                        long bookingId = bookingIds.incrementAndGet();
+                        engine.bind(itemId, reservation, bookingId);
+                        // часть бронирований отклоняется, их интервалы освобождаются
+                        if (random.nextInt(4) == 0) {
+                            engine.release(itemId, bookingId);
+                        } else {
+                            accepted.computeIfAbsent(itemId, id -> new ConcurrentLinkedQueue<>()).add(reservation);
+                        }
+                    } catch (BookingConflictException ignored) {
+                        // пересечение — ожидаемый исход
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        for (Map.Entry<Long, ConcurrentLinkedQueue<BookingInterval>> entry : accepted.entrySet()) {
+            List<BookingInterval> intervals = new ArrayList<>(entry.getValue());
+            intervals.sort(Comparator.comparing(BookingInterval::getStart));
+            for (int i = 1; i < intervals.size(); i++) {
+                BookingInterval previous = intervals.get(i - 1);
+                BookingInterval current = intervals.get(i);
+                assertFalse(previous.overlaps(current.getStart(), current.getEnd()),
+                        "Пересекающиеся бронирования вещи " + entry.getKey());
+            }
+            for (BookingInterval interval : intervals) {
+                assertThrows(BookingConflictException.class,
+                        () -> engine.reserve(entry.getKey(), interval.getStart(), interval.getEnd()));
+            }
+        }
+    }
+
+    @Test
+    void treeAgreesWithLinearScan() {
+        Random random = new Random(42);
+        ItemTimeline timeline = new ItemTimeline(List.of());
+        List<BookingInterval> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime from = BASE.plusHours(random.nextInt(5_000));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(random.nextBoolean() ? 5 : 500));
+            boolean linear = expected.stream().anyMatch(interval -> interval.overlaps(from, to));
+            assertEquals(linear, timeline.hasOverlap(from, to));
+
+            int action = random.nextInt(10);
+            if (action < 6) {
+                BookingInterval interval = new BookingInterval((long) i, from, to);
+                timeline.add(interval);
+                expected.add(interval);
+            } else if (action < 9 && !expected.isEmpty()) {
+                BookingInterval removed = expected.remove(random.nextInt(expected.size()));
+                timeline.removeBooking(removed.getBookingId());
+            } else {
+                LocalDateTime moment = BASE.plusHours(random.nextInt(500));
+                timeline.evictEndedBefore(moment);
+                expected.removeIf(interval -> interval.getEnd().isBefore(moment));
+            }
+        }
+    }
+
+    @Test
+    void idleTimelinesAreEvictedUnlessReservationIsPending() throws InterruptedException {
+        when(bookingRepository.findActiveIntervals(anyLong(), anyCollection(), any())).thenReturn(List.of());
+        engine = new BookingConflictEngine(bookingRepository, 8, Duration.ofMillis(10));
+        engine.reserve(1L, BASE, BASE.plusDays(1));
+        TransactionSynchronizationManager.initSynchronization();
+        engine.reserve(2L, BASE, BASE.plusDays(1));
+
+        // простаивают оба таймлайна, но резерв второй вещи ещё не зафиксирован
+        Thread.sleep(100);
+        engine.evictIdle();
+        assertEquals(1, engine.loadedTimelines());
+        assertThrows(BookingConflictException.class, () -> engine.reserve(2L, BASE, BASE.plusDays(1)));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        Thread.sleep(100);
+        engine.evictIdle();
+        assertEquals(0, engine.loadedTimelines());
+    }
+
+    @Test
+    void deletedUserFreesTheirBookingsAndItems() {
+        when(bookingRepository.findActiveIntervals(anyLong(), anyCollection(), any())).thenReturn(List.of());
+        when(bookingRepository.findTargetsByBooker(anyLong(), anyCollection()))
+                .thenReturn(List.of(new BookingDecisionTarget(7L, 2L, 99L, BookingStatus.APPROVED)));
+        engine = new BookingConflictEngine(bookingRepository, 8, Duration.ofMinutes(30));
+        engine.reserve(1L, BASE, BASE.plusDays(1));
+        engine.bind(2L, engine.reserve(2L, BASE, BASE.plusDays(1)), 7L);
+
+        engine.forgetUserAfterCommit(5L, List.of(1L));
+
+        assertEquals(1, engine.loadedTimelines());
+        assertDoesNotThrow(() -> engine.reserve(2L, BASE, BASE.plusDays(1)));
+    }
+}
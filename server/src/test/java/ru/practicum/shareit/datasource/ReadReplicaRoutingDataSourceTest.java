@@ -0,0 +1,145 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Стенд replica-local: строка есть только в реплике, поэтому её видит лишь транзакция, читающая с реплики
+@SpringBootTest
+@ActiveProfiles("replica-local")
+class ReadReplicaRoutingDataSourceTest {
+    private static final String COUNT_USERS_BY_EMAIL = "SELECT COUNT(*) FROM users WHERE email = ?";
+    private static final String THROW_IF_SUSPENDED = "com.zaxxer.hikari.throwIfSuspended";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ReplicaRoutingProperties properties;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() throws SQLException {
+        String email = insertIntoReplica();
+
+        assertEquals(1, countUsers(email, true));
+        assertEquals(0, countUsers(email, false));
+    }
+
+    // окно read-your-writes (stickiness=5s в replica-local) действует только на писавшего пользователя
+    @Test
+    void readAfterWriteGoesToPrimaryWithinStickinessWindow() throws SQLException {
+        String email = insertIntoReplica();
+        long writer = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+        actAs(writer);
+        assertEquals(1, countUsers(email, true));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals(0, countUsers(email, true));
+
+        actAs(writer + 1);
+        assertEquals(1, countUsers(email, true));
+    }
+
+    // Маршрутизатор без Spring: пул реплики приостанавливается, и взять из него соединение не удаётся
+    // (без throwIfSuspended Hikari ждал бы возобновления пула)
+    @Test
+    void downReplicaFallsBackToPrimaryUntilHealthCheckPasses() throws InterruptedException {
+        System.setProperty(THROW_IF_SUSPENDED, "true");
+        HikariDataSource primary = markedPool("primary");
+        HikariDataSource replicaPool = markedPool("replica");
+        ReplicaNode replica = new ReplicaNode("replica", replicaPool);
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, List.of(replica),
+                ReplicaSelection.ROUND_ROBIN, new ReadYourWritesWindow(Duration.ZERO), Duration.ofMillis(100));
+        try {
+            LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+            TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+            readOnly.setReadOnly(true);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(lazy);
+            String marker = "SELECT source FROM marker";
+
+            assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject(marker, String.class)));
+
+            replicaPool.getHikariPoolMXBean().suspendPool();
+            assertEquals("primary", readOnly.execute(status -> jdbcTemplate.queryForObject(marker, String.class)));
+            assertFalse(replica.isHealthy());
+
+            replicaPool.getHikariPoolMXBean().resumePool();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!replica.isHealthy() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject(marker, String.class)));
+        } finally {
+            System.clearProperty(THROW_IF_SUSPENDED);
+            routing.destroy();
+            primary.close();
+        }
+    }
+
+    private String insertIntoReplica() throws SQLException {
+        String email = UUID.randomUUID() + "@mail.ru";
+        ReplicaRoutingProperties.Replica replica = properties.getReplicas().getFirst();
+        try (Connection connection = DriverManager.getConnection(replica.getUrl(), replica.getUsername(), replica.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO users (name, email) VALUES ('replica', '" + email + "')");
+        }
+        return email;
+    }
+
+    private Integer countUsers(String email, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject(COUNT_USERS_BY_EMAIL, Integer.class, email));
+    }
+
+    private static void actAs(long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(USER_ID_HEADER, String.valueOf(userId));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    // отдельная база H2 с одной строкой — по ней видно, откуда пришло чтение
+    private static HikariDataSource markedPool(String source) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + source + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        pool.setConnectionTimeout(250);
+        pool.setAllowPoolSuspension(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE marker (source VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", source);
+        return pool;
+    }
+}
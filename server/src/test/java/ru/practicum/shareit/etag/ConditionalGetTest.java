@@ -0,0 +1,115 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// ETag считается из тех же строк, что и тело ответа: правка строки, попавшей в ответ, даёт 200 с новым телом
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private long ownerId;
+    private long authorId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(user("owner"));
+        User author = userRepository.save(user("author"));
+        ownerId = owner.getId();
+        authorId = author.getId();
+        Item item = itemRepository.save(new Item(null, "Дрель", "ударная", true, owner, null, null));
+        itemId = item.getId();
+        commentRepository.save(new Comment(null, "отличная дрель", item, author, LocalDateTime.now()));
+    }
+
+    @Test
+    void itemEtagFollowsCommentAuthor() throws Exception {
+        String etag = etagOf("/items/{id}", itemId, authorId);
+
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID_HEADER, authorId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        rename(authorId, "новое имя");
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID_HEADER, authorId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("новое имя"));
+        assertNotEquals(etag, etagOf("/items/{id}", itemId, authorId));
+    }
+
+    @Test
+    void ownerGetsNoItemEtag() throws Exception {
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void userEtagFollowsUpdates() throws Exception {
+        String etag = etagOf("/users/{id}", authorId, authorId);
+
+        mockMvc.perform(get("/users/{id}", authorId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        rename(authorId, "другое имя");
+        mockMvc.perform(get("/users/{id}", authorId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("другое имя"));
+    }
+
+    private String etagOf(String path, long id, long userId) throws Exception {
+        return mockMvc.perform(get(path, id).header(USER_ID_HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void rename(long userId, String name) throws Exception {
+        mockMvc.perform(patch("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        return user;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Индекс без Spring: снимок вещей отдаёт замоканный репозиторий.
+// 40 вещей-«наполнителей» нужны match(): в маленьком наборе любое слово было бы частым
+class ItemSearchIndexTest {
+    private static final long CALLER = 99L;
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<IndexedItem> fixture = new ArrayList<>(List.of(
+                new IndexedItem(1L, "Дрель", "Ударная дрель для бетона", true, 10L, null),
+                new IndexedItem(2L, "Перфоратор", "мощный, бурит бетон", true, 20L, null),
+                new IndexedItem(3L, "Шуруповёрт", "аккумуляторная ДРЕЛЬ-шуруповёрт", true, 20L, null),
+                new IndexedItem(4L, "Дрель старая", "не работает", false, 30L, null),
+                new IndexedItem(5L, "Лестница", "стремянка", true, 10L, null)));
+        for (long id = 100; id < 140; id++) {
+            fixture.add(new IndexedItem(id, "Вещь " + id, "описание вещи", true, 50L, null));
+        }
+        when(itemRepository.findAllIndexed()).thenReturn(fixture);
+        index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void substringMatchesNameAndDescriptionIgnoringCase() {
+        assertEquals(List.of(1L, 3L), search("ДРЕЛЬ"));
+        assertEquals(List.of(1L, 3L), search("рел"));
+        assertEquals(List.of(2L), search("перфо"));
+        assertEquals(List.of(2L), search("БУРИТ"));
+        assertEquals(List.of(1L, 2L), search("бетон"));
+        assertEquals(List.of(), search("отбойник"));
+    }
+
+    @Test
+    void shortQueriesScanAvailableItems() {
+        assertEquals(List.of(1L, 3L), search("Д"));
+        assertEquals(List.of(5L), search("ст"));
+        assertEquals(List.of(1L, 2L), search("бе"));
+        assertEquals(List.of(), search(""));
+    }
+
+    @Test
+    void unavailableItemIsHiddenUntilAvailableAgain() {
+        assertEquals(List.of(), search("старая"));
+
+        index.upsert(new IndexedItem(4L, "Дрель старая", "не работает", true, 30L, null));
+        assertEquals(List.of(4L), search("старая"));
+        assertEquals(List.of(1L, 3L, 4L), search("дрель"));
+
+        index.upsert(new IndexedItem(4L, "Дрель старая", "не работает", false, 30L, null));
+        assertEquals(List.of(), search("старая"));
+    }
+
+    @Test
+    void pagesFollowItemIds() {
+        assertEquals(List.of(1L, 2L), ids(index.search("р", 0, 2)));
+        assertEquals(List.of(3L, 5L), ids(index.search("р", 2, 2)));
+        assertEquals(List.of(), ids(index.search("р", 4, 2)));
+        assertEquals(List.of(2L, 3L), ids(index.search("р", 1, 2)));
+    }
+
+    @Test
+    void matchRanksByMatchedWords() {
+        // вещь 1 подходит под оба слова, 2 — только под «бетона», 3 — под «дрель»; 4 недоступна
+        assertEquals(List.of(1L, 2L, 3L), matchIds("нужна дрель для бетона", CALLER));
+        // две трети триграмм: «дрели» находит «дрель»
+        assertEquals(List.of(1L, 3L), matchIds("дрели", CALLER));
+        assertEquals(List.of(1L), matchedIds(index.match("нужна дрель для бетона", CALLER, 1)));
+    }
+
+    @Test
+    void matchSkipsCommonAndShortWords() {
+        assertEquals(List.of(), matchIds("описание", CALLER));
+        assertEquals(List.of(), matchIds("дре для", CALLER));
+        assertEquals(List.of(1L, 3L), matchIds("описание дрели", CALLER));
+    }
+
+    @Test
+    void matchExcludesCallerItems() {
+        assertEquals(List.of(2L, 3L), matchIds("нужна дрель для бетона", 10L));
+        assertEquals(List.of(1L), matchIds("нужна дрель для бетона", 20L));
+    }
+
+    @Test
+    void removedItemsDisappear() {
+        index.removeAll(List.of(1L, 3L));
+        assertEquals(List.of(), search("дрель"));
+        assertTrue(index.match("дрель", CALLER, 10).isEmpty());
+    }
+
+    private List<Long> search(String text) {
+        return ids(index.search(text, 0, 100));
+    }
+
+    private List<Long> matchIds(String text, long excludeOwnerId) {
+        return matchedIds(index.match(text, excludeOwnerId, 10));
+    }
+
+    private static List<Long> ids(List<IndexedItem> items) {
+        return items.stream().map(IndexedItem::getId).toList();
+    }
+
+    private static List<Long> matchedIds(List<ItemMatch> matches) {
+        return matches.stream().map(ItemMatch::getItemId).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Индекс и запасной LIKE-поиск (shareit.search.engine) отдают одни и те же вещи в одном порядке.
+// Вещи сохраняются в обход сервиса, поэтому индекс перестраивается перед сравнением
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchEngineParityTest {
+    private final String token = "метка" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemSearchProperties searchProperties;
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail(UUID.randomUUID() + "@mail.ru");
+        userRepository.save(owner);
+        itemRepository.saveAll(List.of(
+                new Item(null, "Дрель " + token, "Ударная дрель для бетона", true, owner, null, null),
+                new Item(null, "Перфоратор", "мощный, бурит бетон " + token.toUpperCase(), true, owner, null, null),
+                new Item(null, "Шуруповёрт", "аккумуляторная ДРЕЛЬ-шуруповёрт", true, owner, null, null),
+                new Item(null, "Дрель старая " + token, "не работает", false, owner, null, null),
+                new Item(null, "Лестница", "стремянка", true, owner, null, null)));
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchProperties.setEngine(SearchEngine.INDEX);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            token   | 0 | 100
+            TOKEN   | 0 | 100
+            дрель   | 0 | 100
+            ДРЕЛЬ   | 1 | 2
+            бетон   | 0 | 100
+            старая  | 0 | 100
+            д       | 0 | 100
+            ст      | 0 | 100
+            р       | 2 | 3
+            """)
+    void indexMatchesLikeFallback(String query, int from, int size) {
+        String text = switch (query) {
+            case "token" -> token;
+            case "TOKEN" -> token.toUpperCase();
+            default -> query;
+        };
+
+        searchProperties.setEngine(SearchEngine.LIKE);
+        List<Long> like = ids(text, from, size);
+        searchProperties.setEngine(SearchEngine.INDEX);
+        List<Long> indexed = ids(text, from, size);
+
+        assertEquals(like, indexed, "Поиск по «" + text + "», from=" + from + ", size=" + size);
+    }
+
+    private List<Long> ids(String text, int from, int size) {
+        return itemService.search(text, from, size).stream().map(ItemDto::getId).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.PaginationHttpHeader.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Сервер сам держит границы размера страницы — на случай запросов в обход шлюза
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PageSizeValidationTest {
+    private static final String[] PAGED_PATHS = {
+            "/bookings", "/bookings/owner", "/items/search?text=дрель", "/items/{itemId}/comments",
+            "/requests", "/requests/all", "/requests/all?from=0"
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User user;
+    private long userId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("user");
+        user.setEmail(UUID.randomUUID() + "@mail.ru");
+        userId = userRepository.save(user).getId();
+        itemId = itemRepository.save(new Item(null, "дрель", "ударная дрель", true, user, null, null)).getId();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, PageSize.MAX + 1})
+    void sizeOutOfBoundsIsBadRequest(int size) throws Exception {
+        for (String path : PAGED_PATHS) {
+            mockMvc.perform(get(path, itemId).param("size", String.valueOf(size)).header(USER_ID_HEADER, userId))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, PageSize.MAX})
+    void sizeWithinBoundsIsAccepted(int size) throws Exception {
+        for (String path : PAGED_PATHS) {
+            mockMvc.perform(get(path, itemId).param("size", String.valueOf(size)).header(USER_ID_HEADER, userId))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    // без size и cursor список бронирований отдаётся целиком, как до пагинации
+    @Test
+    void bookingsWithoutSizeAndCursorAreNotPaged() throws Exception {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        int total = PageSize.DEFAULT + 5;
+        for (int i = 0; i < total; i++) {
+            bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    item, user, BookingStatus.WAITING));
+        }
+
+        for (String path : new String[]{"/bookings", "/bookings/owner"}) {
+            mockMvc.perform(get(path).header(USER_ID_HEADER, userId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(total)))
+                    .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+            mockMvc.perform(get(path).param("size", "10").header(USER_ID_HEADER, userId))
+                    .andExpect(jsonPath("$", hasSize(10)))
+                    .andExpect(header().exists(NEXT_CURSOR_HEADER));
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package ru.practicum.shareit.querycount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionBatchDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemBatchDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Каждый эндпоинт сервера укладывается в свой бюджет SQL-операторов (shareit.query-budget.endpoints).
+// Данные готовятся через репозитории до QueryCount.reset(), считается только сам HTTP-запрос
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointQueryBudgetTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private QueryBudgetProperties budgets;
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    // операторы, выполненные асинхронной частью запроса (выгрузка) в отдельном потоке
+    private static final AtomicLong ASYNC_QUERIES = new AtomicLong();
+
+    // выгрузка пишется асинхронно: в тесте запрос ждёт свой поток-исполнитель и забирает его счётчик.
+    // Поток нужен отдельный — в потоке запроса уже открыт EntityManager (open-in-view)
+    @TestConfiguration
+    static class CountingAsyncConfig implements WebMvcConfigurer {
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(task -> {
+                Thread worker = new Thread(() -> {
+                    QueryCount.reset();
+                    task.run();
+                    ASYNC_QUERIES.addAndGet(QueryCount.current());
+                });
+                worker.start();
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+    }
+
+    @Test
+    void everyEndpointHasBudget() {
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().getPackageName().startsWith("ru.practicum.shareit")) {
+                continue;
+            }
+            for (String pattern : entry.getKey().getPatternValues()) {
+                entry.getKey().getMethodsCondition().getMethods().forEach(method ->
+                        assertNotNull(budgets.getEndpoints().get(method.name() + " " + pattern),
+                                "Нет бюджета для " + method.name() + " " + pattern));
+            }
+        }
+    }
+
+    @Test
+    void createUser() throws Exception {
+        perform("POST /users", post("/users").content(json(new UserDto(null, "user", uniqueEmail()))), 201);
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        User user = user();
+        perform("PATCH /users/{userId}", patch("/users/{userId}", user.getId())
+                .content(json(new UserDto(null, "renamed", uniqueEmail()))), 200);
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        User user = user();
+        perform("DELETE /users/{userId}", delete("/users/{userId}", user.getId()), 204);
+    }
+
+    @Test
+    void getUser() throws Exception {
+        User user = user();
+        perform("GET /users/{userId}", get("/users/{userId}", user.getId()), 200);
+    }
+
+    @Test
+    void getUsers() throws Exception {
+        user();
+        perform("GET /users", get("/users"), 200);
+    }
+
+    @Test
+    void createItem() throws Exception {
+        User owner = user();
+        perform("POST /items", post("/items").header(USER_ID_HEADER, owner.getId())
+                .content(json(new ItemDto(null, "дрель", "ударная дрель", true, null))), 201);
+    }
+
+    @Test
+    void createItemsBatch() throws Exception {
+        User owner = user();
+        List<ItemDto> items = IntStream.range(0, 100)
+                .mapToObj(i -> new ItemDto(null, "дрель " + i, "ударная дрель", true, null))
+                .toList();
+        perform("POST /items/batch", post("/items/batch").header(USER_ID_HEADER, owner.getId())
+                .content(json(new ItemBatchDto(items))), 200);
+    }
+
+    @Test
+    void updateItem() throws Exception {
+        User owner = user();
+        Item item = item(owner);
+        perform("PATCH /items/{itemId}", patch("/items/{itemId}", item.getId()).header(USER_ID_HEADER, owner.getId())
+                .content(json(new ItemDto(null, "перфоратор", null, null, null))), 200);
+    }
+
+    @Test
+    void getItem() throws Exception {
+        User owner = user();
+        User booker = user();
+        Item item = item(owner);
+        booking(item, booker, LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
+        booking(item, booker, LocalDateTime.now().plusDays(3), BookingStatus.APPROVED);
+        perform("GET /items/{itemId}", get("/items/{itemId}", item.getId()).header(USER_ID_HEADER, owner.getId()), 200);
+    }
+
+    @Test
+    void getItemsByOwner() throws Exception {
+        User owner = user();
+        User booker = user();
+        for (int i = 0; i < 5; i++) {
+            booking(item(owner), booker, LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
+        }
+        perform("GET /items", get("/items").header(USER_ID_HEADER, owner.getId()), 200);
+    }
+
+    @Test
+    void searchItems() throws Exception {
+        User owner = user();
+        item(owner);
+        perform("GET /items/search", get("/items/search").param("text", "дрель").header(USER_ID_HEADER, owner.getId()), 200);
+    }
+
+    @Test
+    void getComments() throws Exception {
+        Item item = item(user());
+        perform("GET /items/{itemId}/comments", get("/items/{itemId}/comments", item.getId()), 200);
+    }
+
+    @Test
+    void addComment() throws Exception {
+        User booker = user();
+        Item item = item(user());
+        booking(item, booker, LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
+        perform("POST /items/{itemId}/comment", post("/items/{itemId}/comment", item.getId())
+                .header(USER_ID_HEADER, booker.getId())
+                .content(json(new CommentCreateDto("отличная дрель", null))), 201);
+    }
+
+    @Test
+    void createBooking() throws Exception {
+        User booker = user();
+        Item item = item(user());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        perform("POST /bookings", post("/bookings").header(USER_ID_HEADER, booker.getId())
+                .content(json(new BookingDto(null, start, start.plusDays(1), item.getId(), null, null))), 201);
+    }
+
+    @Test
+    void approveBooking() throws Exception {
+        User owner = user();
+        Booking booking = booking(item(owner), user(), LocalDateTime.now().plusDays(1), BookingStatus.WAITING);
+        perform("PATCH /bookings/{bookingId}", patch("/bookings/{bookingId}", booking.getId())
+                .param("approved", "true").header(USER_ID_HEADER, owner.getId()), 200);
+    }
+
+    @Test
+    void decideBookingsBatch() throws Exception {
+        User owner = user();
+        User booker = user();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bookingIds.add(booking(item(owner), booker, LocalDateTime.now().plusDays(1), BookingStatus.WAITING).getId());
+        }
+        perform("PATCH /bookings/batch", patch("/bookings/batch").header(USER_ID_HEADER, owner.getId())
+                .content(json(new BookingDecisionBatchDto(bookingIds, true))), 200);
+    }
+
+    @Test
+    void getBooking() throws Exception {
+        User booker = user();
+        Booking booking = booking(item(user()), booker, LocalDateTime.now().plusDays(1), BookingStatus.WAITING);
+        perform("GET /bookings/{bookingId}", get("/bookings/{bookingId}", booking.getId())
+                .header(USER_ID_HEADER, booker.getId()), 200);
+    }
+
+    @Test
+    void getBookingsByUser() throws Exception {
+        User booker = user();
+        for (int i = 0; i < 5; i++) {
+            booking(item(user()), booker, LocalDateTime.now().plusDays(i + 1), BookingStatus.WAITING);
+        }
+        perform("GET /bookings", get("/bookings").header(USER_ID_HEADER, booker.getId()), 200);
+    }
+
+    @Test
+    void getBookingsByOwner() throws Exception {
+        User owner = user();
+        User booker = user();
+        for (int i = 0; i < 5; i++) {
+            booking(item(owner), booker, LocalDateTime.now().plusDays(i + 1), BookingStatus.WAITING);
+        }
+        perform("GET /bookings/owner", get("/bookings/owner").header(USER_ID_HEADER, owner.getId()), 200);
+    }
+
+    @Test
+    void exportBookingsByOwner() throws Exception {
+        User owner = user();
+        User booker = user();
+        for (int i = 0; i < 5; i++) {
+            booking(item(owner), booker, LocalDateTime.now().plusDays(i + 1), BookingStatus.WAITING);
+        }
+        QueryCount.reset();
+        ASYNC_QUERIES.set(0);
+        MvcResult started = mockMvc.perform(get("/bookings/owner/export").header(USER_ID_HEADER, owner.getId()))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertWithinBudget("GET /bookings/owner/export");
+    }
+
+    @Test
+    void createRequest() throws Exception {
+        User requestor = user();
+        item(user());
+        perform("POST /requests", post("/requests").header(USER_ID_HEADER, requestor.getId())
+                .content(json(new ItemRequestCreateDto("нужна дрель"))), 201);
+    }
+
+    @Test
+    void getRequestsByUser() throws Exception {
+        User requestor = user();
+        for (int i = 0; i < 5; i++) {
+            request(requestor);
+        }
+        perform("GET /requests", get("/requests").header(USER_ID_HEADER, requestor.getId()), 200);
+    }
+
+    @Test
+    void getAllRequests() throws Exception {
+        User requestor = user();
+        for (int i = 0; i < 5; i++) {
+            request(requestor);
+        }
+        perform("GET /requests/all", get("/requests/all").header(USER_ID_HEADER, user().getId()), 200);
+    }
+
+    @Test
+    void getRequest() throws Exception {
+        ItemRequest request = request(user());
+        perform("GET /requests/{requestId}", get("/requests/{requestId}", request.getId()), 200);
+    }
+
+    private void perform(String endpoint, MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        QueryCount.reset();
+        ASYNC_QUERIES.set(0);
+        MvcResult result = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)).andReturn();
+        assertEquals(expectedStatus, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertWithinBudget(endpoint);
+    }
+
+    private void assertWithinBudget(String endpoint) {
+        Long budget = budgets.getEndpoints().get(endpoint);
+        assertNotNull(budget, "Нет бюджета для " + endpoint);
+        QueryCount.assertAtMost(budget, endpoint, ASYNC_QUERIES.get());
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private User user() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(uniqueEmail());
+        return userRepository.save(user);
+    }
+
+    private Item item(User owner) {
+        return itemRepository.save(new Item(null, "дрель", "ударная дрель", true, owner, null, null));
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, status));
+    }
+
+    private ItemRequest request(User requestor) {
+        return requestRepository.save(new ItemRequest(null, "нужна дрель", requestor, LocalDateTime.now(), null));
+    }
+
+    private static String uniqueEmail() {
+        return UUID.randomUUID() + "@mail.ru";
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.querycount;
+
+import lombok.Getter;
+
+@Getter
+public class QueryBudgetExceededException extends RuntimeException {
+    private final long budget;
+    private final long actual;
+
+    public QueryBudgetExceededException(String operation, long budget, long actual) {
+        super(operation + ": выполнено SQL-операторов " + actual + " при бюджете " + budget);
+        this.budget = budget;
+        this.actual = actual;
+    }
+}
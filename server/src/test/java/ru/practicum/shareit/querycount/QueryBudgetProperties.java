@@ -0,0 +1,14 @@
+package ru.practicum.shareit.querycount;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.query-budget")
+public class QueryBudgetProperties {
+    // "МЕТОД шаблон-пути" -> допустимое число SQL-операторов на запрос, например [GET /items/{itemId}]=6
+    private Map<String, Long> endpoints = new HashMap<>();
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.querycount;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+// Число JDBC-операторов, выполненных текущим потоком с последнего reset(); считает прокси DataSource (профиль test)
+public final class QueryCount {
+    private QueryCount() {
+    }
+
+    public static void reset() {
+        QueryCountHolder.clear();
+    }
+
+    public static long current() {
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    public static void assertAtMost(long budget, String operation) {
+        assertAtMost(budget, operation, 0);
+    }
+
+    // offThread — операторы, которые запрос выполнил в других потоках и которые посчитаны там
+    public static void assertAtMost(long budget, String operation, long offThread) {
+        long actual = current() + offThread;
+        if (actual > budget) {
+            throw new QueryBudgetExceededException(operation, budget, actual);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.querycount;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+// Только в тестах: каждый оператор проходит через datasource-proxy и попадает в QueryCount
+@Configuration
+@Profile("test")
+public class QueryCountConfig {
+    // оборачивается только основной DataSource: пулы под маршрутизацией реплик посчитались бы повторно
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(DATA_SOURCE_BEAN)
+                            .countQuery()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
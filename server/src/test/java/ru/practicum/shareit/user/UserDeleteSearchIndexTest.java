@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constants.UserIdHttpHeader.USER_ID_HEADER;
+
+// Удаление пользователя убирает из поиска ровно те вещи, которые БД удалила каскадом:
+// его собственные и ответы на его запросы
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserDeleteSearchIndexTest {
+    private final String token = "метка" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deleteRemovesOnlyCascadedItemsFromSearch() throws Exception {
+        long owner = user();
+        long requestor = user();
+        long responder = user();
+        long ownItem = item(owner, null);
+        long requestId = id(call(post("/requests").header(USER_ID_HEADER, requestor)
+                .content(json(new ItemRequestCreateDto("нужна дрель"))), 201));
+        long answer = item(responder, requestId);
+        long unrelated = item(responder, null);
+        assertEquals(Set.of(ownItem, answer, unrelated), search());
+
+        call(delete("/users/{userId}", requestor), 204);
+        assertEquals(Set.of(ownItem, unrelated), search());
+
+        call(delete("/users/{userId}", owner), 204);
+        assertEquals(Set.of(unrelated), search());
+    }
+
+    private long user() throws Exception {
+        return id(call(post("/users").content(json(new UserDto(null, "user", UUID.randomUUID() + "@mail.ru"))), 201));
+    }
+
+    private long item(long ownerId, Long requestId) throws Exception {
+        ItemDto item = new ItemDto(null, "дрель " + token, "ударная дрель", true, requestId);
+        return id(call(post("/items").header(USER_ID_HEADER, ownerId).content(json(item)), 201));
+    }
+
+    private Set<Long> search() throws Exception {
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode item : call(get("/items/search").param("text", token).param("size", "100"), 200)) {
+            ids.add(item.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        String body = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return body.isEmpty() ? null : objectMapper.readTree(body);
+    }
+
+    private static long id(JsonNode node) {
+        return node.get("id").asLong();
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}
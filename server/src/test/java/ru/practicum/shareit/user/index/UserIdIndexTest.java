@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Индекс без Spring и транзакций: removeAfterCommit срабатывает сразу
+class UserIdIndexTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserIdIndex index = new UserIdIndex(userRepository);
+
+    @Test
+    void missIsCheckedInDatabaseAndCached() {
+        when(userRepository.findAllIds()).thenReturn(List.of());
+        index.rebuild();
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(index.exists(1L));
+        assertTrue(index.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    // удаление зафиксировано, пока exists ходил в БД: ответ БД отдаётся, но в битмап не попадает
+    @Test
+    void userRemovedDuringMissIsNotCached() {
+        when(userRepository.findAllIds()).thenReturn(List.of());
+        index.rebuild();
+        when(userRepository.existsById(1L)).thenAnswer(invocation -> {
+            index.removeAfterCommit(1L);
+            return true;
+        });
+
+        assertTrue(index.exists(1L));
+
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertFalse(index.exists(1L));
+    }
+}